@@ -1,5 +1,10 @@
 import java.util.ArrayList;
-import java.util.Vector;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Here we employ a
@@ -17,13 +22,78 @@ public class AI_Heuristic {
             RED = CheckersData.RED,
             BLACK = CheckersData.BLACK;
 
-    private int DEPTH,
+    private int DEPTH, // Depth cap of the iterative deepening
             DEPTH_DIFFICULTY_FACTOR = 4;
 
-    private Move bestMove;
+    // Iterative deepening stops once the time budget runs out (0 - no time limit)
+    private long moveTimeBudget, searchDeadline;
+    private volatile boolean stopSearch;
+    private int completedDepth; // Deepest fully searched iteration of the current move
+    private long nodes, quiescenceNodes;
+    private int quiescenceDepth = Constants.default_QUIESCENCE_DEPTH;
+    private EndgameTablebase tablebase; // null - no tablebase
+    private OpeningBook openingBook; // null - no book
+    private final BitBoard tablebasePosition = new BitBoard(); // Grid mode: the searched board as masks, for probing
+    private long tablebaseHits;
+    private int piecesOnBoard; // Kept up to date by makeMove/unmakeMove, so probing is only tried in endgames
+
+    // Principal Variation Search: moves after the first only get a null window,
+    // and the root window is centred on the previous iteration's score
+    private boolean principalVariationSearch = Constants.default_PrincipalVariationSearch;
+    private long researches, aspirationResearches;
+    private static final int ASPIRATION_WINDOW = 100,
+            ASPIRATION_WIDENING_FACTOR = 4;
+
+    // Root driver (Constants.searchDriver_AlphaBeta or searchDriver_MTDf)
+    private int searchDriver = Constants.default_SearchDriver;
+    private long mtdfPasses; // Zero window searches of the root
+    private int mtdfStep = Constants.default_MTDF_STEP; // Least distance the next guess moves past the last pass's beta
+    private final long[] searchDriverNodes = new long[Constants.searchDriverNames.length]; // Nodes of every search, by driver
+
+    // Selective search (null window nodes, quiet positions):
+    //      Futility pruning: near the leaves, quiet moves are skipped if their child's static score plus a margin cannot reach alpha
+    //      Late move reductions: quiet moves ordered late are searched one ply shallower first
+    //      ProbCut: a shallow search of the first moves with a raised beta predicts a cutoff of the full depth search
+    private boolean futilityPruning = Constants.default_FutilityPruning,
+            lateMoveReductions = Constants.default_LateMoveReductions,
+            probCut = Constants.default_ProbCut;
+    private long futilityPrunes, lateMoveReductionCount, lateMoveResearches, probCutSearches, probCuts;
+    private static final int LMR_DEPTH = 3, // Least remaining depth a move is reduced at
+            LMR_MOVES = 3, // Moves searched at full depth before the others are reduced
+            LMR_REDUCTION = 1;
+    private static final int PROBCUT_DEPTH = 5, // Least remaining depth ProbCut is tried at
+            PROBCUT_REDUCTION = 4,
+            PROBCUT_MOVES = 3; // Moves the shallow search is tried with
+    // Margins (see Constants.default_FUTILITY_MARGINS): [depth] futility, and ProbCut's above beta
+    private int[] futilityMargins = Constants.default_FUTILITY_MARGINS.clone();
+    private int probCutMargin = Constants.default_PROBCUT_MARGIN;
+    // Margin measurement (see SelectiveMarginReport), null - not measured:
+    //      [MARGIN_FUTILITY + depth - 1 or MARGIN_PROBCUT][0 - every move, 1 - the moves no margin may prune or cut]
+    //      [bucket: 0 - never pruned or cut, 1 + margin / MARGIN_BUCKET - the largest margin still pruning or cutting it]
+    private long[][][] marginCounts;
+    private int[][] probCutValues; // [ply][move] score of the shallow search of the first moves (margin measurement)
+    static final int MARGIN_FUTILITY = 0, MARGIN_PROBCUT = 2,
+            MARGIN_BUCKET = 50, MARGIN_BUCKETS = 2 + 15000 / MARGIN_BUCKET; // (The last bucket holds every larger margin)
+
+    // Extensions (in fractions of a ply, ONE_PLY = a whole ply): a move is searched deeper if it
+    //      crowns a man, is the only legal reply, or leaves a capture pending (either side can jump).
+    // Fractions add up along the path (extensionCarry), the child gets a ply once they reach ONE_PLY.
+    // A search thread stops extending once its extensions reach extensionBudget percent of its nodes,
+    // and no path goes past 2 * DEPTH plies.
+    static final int ONE_PLY = 4;
+    private int promotionExtension = Constants.default_PROMOTION_EXTENSION,
+            singleReplyExtension = Constants.default_SINGLE_REPLY_EXTENSION,
+            captureExtension = Constants.default_CAPTURE_EXTENSION,
+            extensionBudget = Constants.default_EXTENSION_BUDGET_PERCENT;
+    private int[] extensionCarry; // [ply] fractions of a ply the path to the ply has not used yet
+    private long extensions; // Plies added to the depth
+
+    // Best root move found so far (packed, see PackedMove) and the pieces it captures
+    private int bestMove = TranspositionTable.NO_MOVE, bestMoveCaptured;
     private int bestMoveCosts = 0;
 
     private int RMIN = Constants.RMIN, RMAX = Constants.RMAX;// Variables determining Random changes in Heuristic
+    private boolean evaluationNoise = Constants.default_EvaluationNoise; // False - leaves get no random change
 
     private int PAWN_PIECE = 500,
             KING = PAWN_PIECE * 5 / 3,
@@ -39,89 +109,1605 @@ public class AI_Heuristic {
 
     private final int[] stage = {0, 1, 2}; // 3 Stages: 0 - Beginning, 1 - Middle, 2 - End
 
+    // Engine mode: search on 32-bit masks instead of the Piece[][] grid
+    private boolean bitBoardSearch = Constants.default_BitBoardSearch;
+    private final BitBoard position = new BitBoard();
+    // Board the masks are written onto before evaluating a leaf (allocated once)
+    private Piece[][] evaluationBoard;
+    // Incremental evaluation (BitBoard search only): material and the men's distances are kept up to date
+    // by makeMove/unmakeMove, the other terms are computed from the masks instead of the board
+    private boolean incrementalEvaluation = Constants.default_IncrementalEvaluation;
+    private final EvaluationState evaluationState = new EvaluationState();
+    private final int[] protectedPieceCount = new int[4], movablePieceCount = new int[4],
+            promotionRowCount = new int[2], meanDistanceToPromotionCount = new int[2],
+            meanDistanceCount = new int[2], trappedPieceCount = new int[4];
+    // Fused evaluation (Hard): every term collected in one pass over the pieces, then weighted by stage
+    private boolean fusedEvaluation = Constants.default_FusedEvaluation;
+    private final FusedEvaluator fusedEvaluator = new FusedEvaluator(PAWN_PIECE, KING);
+    // Lazy evaluation (Hard): a leaf whose material bounds are outside the search window is not fully evaluated
+    private boolean lazyEvaluation = Constants.default_LazyEvaluation;
+    private static final int NO_LAZY_BOUND = Integer.MIN_VALUE;
+    private static final int NO_FUTILITY_SCORE = Integer.MIN_VALUE;
+    private final int[] lazyPieceCount = new int[4];
+    private long lazyEvaluations; // Leaves answered by their bounds
+    // Grid mode: the leaf as masks (for the fused evaluation and the distance terms)
+    private final BitBoard leafPosition = new BitBoard();
+    // One undo record and one move buffer per ply, reused by every position searched at that ply
+    private UndoRecord[] undoRecords;
+    private int[][] moveBuffers;
+
+    // Zobrist key of the board being searched (kept up to date by makeMove/unmakeMove)
+    private long hashKey;
+    private TranspositionTable transpositionTable; // Allocated by the first search
+    private int transpositionTableSizeInMB;
+    private MoveOrdering moveOrdering;
+    // Static evaluations (Intermediate and Hard) by Zobrist key, so a leaf seen again is not evaluated again
+    private EvaluationCache evaluationCache; // null - no cache
+    private int evaluationCacheSizeInKB;
+    private long evaluationCacheHits, evaluationCacheProbes;
+    // Protection terms by men configuration (incremental and fused evaluation), shared by the positions below king moves
+    private MenStructureCache menStructureCache; // null - no cache
+    private int menStructureCacheSizeInKB;
+    private long menStructureCacheHits, menStructureCacheProbes;
+    private final int[] menStructure = new int[MenStructureCache.TERMS];
+
+    // Parallel search on a ForkJoinPool, either
+    //      Root Split: root moves are split between pool tasks, or
+    //      Lazy SMP: helper tasks run the whole iterative deepening next to this thread.
+    // Each pool task borrows a worker (an AI_Heuristic with its own board and undo records)
+    // and every worker shares this AI's transposition table.
+    private int searchThreads = Constants.default_SEARCH_THREADS,
+            parallelSearch = Constants.default_ParallelSearch;
+    private ForkJoinPool searchPool;
+    private final ConcurrentLinkedQueue<AI_Heuristic> idleWorkers = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<AI_Heuristic> workers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sharedAlpha = new AtomicInteger();
+    private int rootBestScore;
+    private final Object rootMoveLock = new Object(); // Root split workers report their moves under this lock
+    private ForkJoinTask<?> helperTask; // Set while this worker is a Lazy SMP helper
+    private boolean printSearchInfo = true;
+
+    // Pondering: while the opponent thinks, a worker searches the positions after its expected replies
+    // (see startPondering). If the opponent plays one of them, getBestMove continues from that search.
+    private boolean pondering = Constants.default_Pondering;
+    private Thread ponderThread;
+    private AI_Heuristic ponderWorker;
+    private PonderReply[] ponderReplies;
+    private long ponderHits, ponderMisses;
+    private static final int PONDER_GUESS_DEPTH = 4; // Depth of the search picking the expected reply
+
+    // Search score bounds, kept away from Integer.MIN_VALUE so that negating a score cannot overflow
+    private static final int INFINITY = 1000000,
+            WIN_SCORE = 100000, // Player to move has no legal moves left (minus the plies it took)
+            WIN_SCORE_THRESHOLD = WIN_SCORE - 1000;
+
 
     AI_Heuristic(int computerPlayerID, int difficulty, Piece[][] board, int numRowsAndColumns) {
         this.computerPlayerID = computerPlayerID;
         this.difficulty = difficulty;
-        this.gameBoard = deepCopy(board);
         this.numRowsAndColumns = numRowsAndColumns;
+        this.gameBoard = deepCopy(board);
+        this.evaluationBoard = deepCopy(board);
+
+        setMaxDepth(difficulty * DEPTH_DIFFICULTY_FACTOR);
+        setTranspositionTableSize(Constants.default_TRANSPOSITION_TABLE_SIZE_IN_MB);
+        setEvaluationCacheSize(Constants.default_EVALUATION_CACHE_SIZE_IN_KB);
+        setMenStructureCacheSize(Constants.default_MEN_STRUCTURE_CACHE_SIZE_IN_KB);
+        this.tablebase = EndgameTablebase.open(Constants.default_TABLEBASE_DIRECTORY, Constants.default_TABLEBASE_PIECES);
+        this.openingBook = OpeningBook.open(Constants.default_OPENING_BOOK_FILE);
+        this.moveTimeBudget = Constants.difficultyTimeBudgetInMilliseconds[difficulty];
+    }
+
+    public int getComputerPlayerID() {
+        return computerPlayerID;
+    }
+
+    int getDifficulty() {
+        return difficulty;
+    }
+
+    void setBitBoardSearch(boolean bitBoardSearch) {
+        this.bitBoardSearch = bitBoardSearch;
+    }
+
+    /**
+     * @param fusedEvaluation True - evaluate Hard positions with FusedEvaluator
+     */
+    void setFusedEvaluation(boolean fusedEvaluation) {
+        this.fusedEvaluation = fusedEvaluation;
+    }
+
+    /**
+     * @param futilityPruning True - skip quiet moves near the leaves that cannot reach alpha
+     */
+    void setFutilityPruning(boolean futilityPruning) {
+        this.futilityPruning = futilityPruning;
+    }
+
+    /**
+     * @param lateMoveReductions True - search quiet moves ordered late one ply shallower first
+     */
+    void setLateMoveReductions(boolean lateMoveReductions) {
+        this.lateMoveReductions = lateMoveReductions;
+    }
+
+    /**
+     * @param probCut True - cut nodes whose shallow search fails high by a margin
+     */
+    void setProbCut(boolean probCut) {
+        this.probCut = probCut;
+    }
+
+    /**
+     * @param futilityMargins [depth] margin added to the static score before comparing it with alpha
+     *                        (futility pruning is tried at depths 1 to futilityMargins.length - 1)
+     * @param probCutMargin   How far above beta the shallow search must fail high
+     */
+    void setSelectiveMargins(int[] futilityMargins, int probCutMargin) {
+        this.futilityMargins = futilityMargins.clone();
+        this.probCutMargin = probCutMargin;
+    }
+
+    /**
+     * Counts, for every quiet move of the searches that follow, the largest futility or ProbCut margin
+     * that would still prune or cut it, and whether the full search shows that it must not be
+     * (see SelectiveMarginReport). Selective search must be off, and the search single threaded.
+     *
+     * @param marginCounts [MARGIN_PROBCUT + 1][2][MARGIN_BUCKETS] counts added to (see marginCounts), null - off
+     */
+    void setMarginMeasurement(long[][][] marginCounts) {
+        this.marginCounts = marginCounts;
+    }
+
+    /**
+     * @param promotion   Extension of a move that crowns a man (in ONE_PLY units, 0 - none)
+     * @param singleReply Extension of the only legal move of a position
+     * @param capture     Extension of a move after which either side can jump
+     */
+    void setExtensions(int promotion, int singleReply, int capture) {
+        this.promotionExtension = promotion;
+        this.singleReplyExtension = singleReply;
+        this.captureExtension = capture;
+    }
+
+    /**
+     * @param percent Extensions a search thread may make, in percent of the nodes it searched
+     */
+    void setExtensionBudget(int percent) {
+        this.extensionBudget = percent;
+    }
+
+    /**
+     * @param evaluationNoise True - add the random change to every leaf score, False - deterministic scores
+     *                        (the searches of two configurations can then be compared move for move)
+     */
+    void setEvaluationNoise(boolean evaluationNoise) {
+        this.evaluationNoise = evaluationNoise;
+    }
+
+    /**
+     * @param lazyEvaluation True - return early from Hard evaluations that cannot reach the search window
+     */
+    void setLazyEvaluation(boolean lazyEvaluation) {
+        this.lazyEvaluation = lazyEvaluation;
+    }
+
+    /**
+     * @param incrementalEvaluation True - evaluate from the incremental state and the masks (BitBoard search only)
+     */
+    void setIncrementalEvaluation(boolean incrementalEvaluation) {
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    /**
+     * @param sizeInMegabytes Transposition table size (0 disables the table)
+     */
+    void setTranspositionTableSize(int sizeInMegabytes) {
+        transpositionTableSizeInMB = sizeInMegabytes;
+        transpositionTable = null;
+    }
+
+    /**
+     * @param sizeInKilobytes Evaluation cache size of this AI and of each of its search workers (0 disables the cache)
+     */
+    void setEvaluationCacheSize(int sizeInKilobytes) {
+        stopPondering();
+        evaluationCacheSizeInKB = sizeInKilobytes;
+        evaluationCache = sizeInKilobytes > 0 ? new EvaluationCache(sizeInKilobytes) : null;
+        idleWorkers.clear();
+        workers.clear();
+    }
+
+    /**
+     * @param sizeInKilobytes Men structure cache size of this AI and of each of its search workers (0 disables the cache)
+     */
+    void setMenStructureCacheSize(int sizeInKilobytes) {
+        stopPondering();
+        menStructureCacheSizeInKB = sizeInKilobytes;
+        menStructureCache = sizeInKilobytes > 0 ? new MenStructureCache(sizeInKilobytes) : null;
+        idleWorkers.clear();
+        workers.clear();
+    }
+
+    /**
+     * @param depth Depth cap of the iterative deepening (default: difficulty * DEPTH_DIFFICULTY_FACTOR)
+     */
+    void setMaxDepth(int depth) {
+        stopPondering();
+        this.DEPTH = depth;
+        // Extended paths reach 2 * DEPTH plies, and quiescence search continues past them,
+        // so it needs undo records and move buffers of its own
+        this.undoRecords = new UndoRecord[2 * DEPTH + quiescenceDepth + 1];
+        this.moveBuffers = new int[undoRecords.length][];
+        for (int ply = 0; ply < undoRecords.length; ply++) {
+            undoRecords[ply] = new UndoRecord();
+            moveBuffers[ply] = PackedMove.newBuffer();
+        }
+        this.extensionCarry = new int[undoRecords.length];
+        this.probCutValues = new int[undoRecords.length][PROBCUT_MOVES];
+        this.moveOrdering = new MoveOrdering(2 * DEPTH);
+        idleWorkers.clear();
+        workers.clear();
+    }
+
+    /**
+     * @param plies Forced jumps resolved past the search depth before evaluating (0 - evaluate at the depth cap)
+     */
+    void setQuiescenceDepth(int plies) {
+        this.quiescenceDepth = Math.max(0, plies);
+        setMaxDepth(DEPTH);
+    }
+
+    /**
+     * @param tablebase Endgame tablebase to probe (null - none)
+     */
+    void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * @param openingBook Opening book consulted before searching (null - none)
+     */
+    void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * @param parallelSearch Constants.parallelSearch_RootSplit or Constants.parallelSearch_LazySMP
+     */
+    void setParallelSearch(int parallelSearch) {
+        this.parallelSearch = parallelSearch;
+    }
+
+    /**
+     * @param searchDriver Constants.searchDriver_AlphaBeta or Constants.searchDriver_MTDf
+     */
+    void setSearchDriver(int searchDriver) {
+        this.searchDriver = searchDriver;
+    }
+
+    /**
+     * @param mtdfStep Least distance each MTD(f) guess moves past the last pass's bound
+     *                 (1 - textbook MTD(f), larger steps take fewer passes when the scores are noisy)
+     */
+    void setMtdfStep(int mtdfStep) {
+        this.mtdfStep = Math.max(1, mtdfStep);
+    }
+
+    void setPrintSearchInfo(boolean printSearchInfo) {
+        this.printSearchInfo = printSearchInfo;
+    }
+
+    /**
+     * @param searchDriver Constants.searchDriver_AlphaBeta or Constants.searchDriver_MTDf
+     * @return Nodes searched (by every thread) for every move searched with the driver
+     */
+    long getSearchedNodes(int searchDriver) {
+        return searchDriverNodes[searchDriver];
+    }
+
+    /**
+     * @return Nodes searched (by every thread) for the last move
+     */
+    long getSearchedNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return Share of the last search's evaluations answered by the evaluation cache (0 - 1)
+     */
+    double getEvaluationCacheHitRate() {
+        return evaluationCacheProbes > 0 ? (double) evaluationCacheHits / evaluationCacheProbes : 0;
+    }
+
+    /**
+     * @return Share of the last search's men structure lookups answered by the men structure cache (0 - 1)
+     */
+    double getMenStructureCacheHitRate() {
+        return menStructureCacheProbes > 0 ? (double) menStructureCacheHits / menStructureCacheProbes : 0;
+    }
+
+    /**
+     * @param threads Threads searching in parallel (1 - single threaded search)
+     */
+    void setSearchThreads(int threads) {
+        stopPondering();
+        if (threads != searchThreads && searchPool != null) {
+            searchPool.shutdown();
+            searchPool = null;
+        }
+        searchThreads = Math.max(1, threads);
+        idleWorkers.clear();
+        workers.clear();
+    }
+
+    /**
+     * @param milliseconds Think time per move (0 - search to the depth cap)
+     */
+    void setMoveTimeBudget(long milliseconds) {
+        this.moveTimeBudget = milliseconds;
+    }
+
+    /**
+     * @param principalVariationSearch True - PVS, False - plain negamax (full windows everywhere)
+     */
+    void setPrincipalVariationSearch(boolean principalVariationSearch) {
+        this.principalVariationSearch = principalVariationSearch;
+    }
+
+    /**
+     * @param pondering True - search on the opponent's time (see startPondering)
+     */
+    void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * Forgets what earlier searches learned (transposition table, killers and history).
+     * Not needed between moves or games (each search ages the tables instead), only to start
+     * with a clean engine, e.g. to compare searches.
+     */
+    void clearSearchTables() {
+        stopPondering();
+        if (transpositionTable != null) {
+            transpositionTable.clear();
+        }
+        moveOrdering.clear();
+        if (evaluationCache != null) {
+            evaluationCache.clear();
+        }
+        for (AI_Heuristic worker : workers) {
+            worker.moveOrdering.clear();
+            if (worker.evaluationCache != null) {
+                worker.evaluationCache.clear();
+            }
+        }
+    }
+
+    /**
+     * Called before each search. The tables are kept from one move (and game) to the next, aged:
+     * transposition table entries of earlier searches become replaceable, history decays and killers are reset.
+     */
+    private void ageSearchTables() {
+        if (transpositionTable != null) {
+            transpositionTable.age();
+        }
+        moveOrdering.age();
+    }
+
+    /**
+     * Stops a running search. getBestMove returns the best move of the last completed depth.
+     */
+    void stopSearch() {
+        stopSearch = true;
+        for (AI_Heuristic worker : workers) {
+            worker.stopSearch = true;
+        }
+    }
+
+    /**
+     * Called when a move is requested, before its search is scheduled, so that a stopSearch
+     * coming between the request and the start of the search is not lost.
+     * (The flag is not cleared by the search itself, only once it has finished.)
+     */
+    void clearStopSearch() {
+        stopSearch = false;
+    }
+
+    /**
+     * Searches gameBoard for the computer's move. The search, startPondering and stopPondering are
+     * synchronized on this AI, so pondering never starts under a search still running (only stopSearch is not).
+     *
+     * @return The move to play, or null if the search was stopped before depth 1 finished
+     */
+    synchronized Move getBestMove() {
+        if (bitBoardSearch) {
+            position.setFromPieces(gameBoard);
+        }
+        hashKey = Zobrist.hash(gameBoard);
+        PonderReply ponderHit = stopPondering(hashKey);
+        BitBoard rootPosition = bitBoardSearch ? position : new BitBoard(gameBoard);
+        piecesOnBoard = Integer.bitCount(rootPosition.red | rootPosition.black);
+        evaluationState.set(rootPosition);
+        // The game gets a Move object, the search only packed moves
+        Move[] legalMoves = getLegalMoves(gameBoard, computerPlayerID);
+        // Book moves come back before anything is allocated for the search
+        if (difficulty > 1 && legalMoves.length > 1 && openingBook != null) {
+            Move bookMove = openingBook.lookup(hashKey ^ Zobrist.sideToMove(computerPlayerID), legalMoves);
+            if (bookMove != null) {
+                if (printSearchInfo) {
+                    System.out.println("Book Move For " + computerPlayerID + ": (" + bookMove.fromRow + ", " + bookMove.fromCol
+                            + ") -> (" + bookMove.toRow + ", " + bookMove.toCol + ")");
+                }
+                return bookMove;
+            }
+        }
+        if (difficulty > 1 && legalMoves.length > 1) {
+            if (transpositionTable == null && transpositionTableSizeInMB > 0) {
+                transpositionTable = new TranspositionTable(transpositionTableSizeInMB);
+            }
+            iterativeDeepening(ponderHit);
+            return PackedMove.toMove(bestMove, bestMoveCaptured, legalMoves);
+        } else if (difficulty > 1) {
+            // Forced move, nothing to search
+            return legalMoves[0];
+        }
+
+        return legalMoves[(int) (legalMoves.length * Math.random())];
+
+
+    }
+
+    /**
+     * Searches depth 1, 2, 3, ... until the time budget runs out or DEPTH is reached.
+     * An unfinished iteration is thrown away, so the returned move
+     * always comes from the last completed depth.
+     * Each iteration's best move is searched first in the next one (through the transposition table).
+     * After a ponder hit the iterations done while pondering count as completed (and their time as spent).
+     *
+     * The best move of the deepest completed iteration is left in bestMove (and bestMoveCaptured).
+     *
+     * @param ponderHit Pondered search of this position (null - start from depth 1)
+     */
+    private void iterativeDeepening(PonderReply ponderHit) {
+        long startTime = System.currentTimeMillis();
+        long timeSpent = ponderHit != null ? ponderHit.timeSpent : 0;
+        searchDeadline = moveTimeBudget > 0 ? startTime + Math.max(0, moveTimeBudget - timeSpent) : Long.MAX_VALUE;
+        completedDepth = ponderHit != null ? ponderHit.completedDepth : 0;
+        nodes = 0;
+        quiescenceNodes = 0;
+        tablebaseHits = 0;
+        evaluationCacheHits = 0;
+        evaluationCacheProbes = 0;
+        menStructureCacheHits = 0;
+        menStructureCacheProbes = 0;
+        lazyEvaluations = 0;
+        futilityPrunes = 0;
+        lateMoveReductionCount = 0;
+        lateMoveResearches = 0;
+        probCutSearches = 0;
+        probCuts = 0;
+        extensions = 0;
+        mtdfPasses = 0;
+        researches = 0;
+        aspirationResearches = 0;
+        ageSearchTables();
+        AI_Heuristic[] helpers = startLazySMPHelpers();
+
+        int completedBestMove = ponderHit != null ? ponderHit.bestMove : TranspositionTable.NO_MOVE,
+                completedBestMoveCaptured = ponderHit != null ? ponderHit.bestMoveCaptured : 0;
+        int completedScore = ponderHit != null ? ponderHit.score : 0;
+        boolean finished = Math.abs(completedScore) > WIN_SCORE_THRESHOLD
+                || (moveTimeBudget > 0 && timeSpent >= moveTimeBudget);
+        for (int depth = completedDepth + 1; depth <= DEPTH && !finished; depth++) {
+            bestMove = TranspositionTable.NO_MOVE;
+            int score = searchRoot(depth, completedScore);
+            if (stopSearch) {
+                break;
+            }
+            completedBestMove = bestMove;
+            completedBestMoveCaptured = bestMoveCaptured;
+            completedScore = score;
+            completedDepth = depth;
+
+            // Stop early if the game's result is already known, or if there is no time left
+            if (Math.abs(score) > WIN_SCORE_THRESHOLD || System.currentTimeMillis() >= searchDeadline) {
+                break;
+            }
+        }
+        stopLazySMPHelpers(helpers);
+        stopSearch = false; // (The stop, or the deadline, was for this search)
+        searchDriverNodes[searchDriver] += nodes;
+        if (completedBestMove == TranspositionTable.NO_MOVE) {
+            // Stopped before depth 1 finished
+            return;
+        }
+        bestMove = completedBestMove;
+        bestMoveCaptured = completedBestMoveCaptured;
+
+        bestMoveCosts += completedScore;
+        if (!printSearchInfo) {
+            return;
+        }
+        System.out.println("Best Move SCORE For " + computerPlayerID + ": " + completedScore
+                + " " + PackedMove.toString(completedBestMove) +
+                " Depth: " + completedDepth +
+                " Nodes: " + nodes + " (Quiescence: " + quiescenceNodes + ")" +
+                (evaluationCacheProbes > 0 ? " Eval Cache Hits: " + evaluationCacheHits + "/" + evaluationCacheProbes
+                        + " (" + Math.round(100 * getEvaluationCacheHitRate()) + "%)" : "") +
+                (menStructureCacheProbes > 0 ? " Men Structure Hits: " + menStructureCacheHits + "/" + menStructureCacheProbes
+                        + " (" + Math.round(100 * getMenStructureCacheHitRate()) + "%)" : "") +
+                (lazyEvaluations > 0 ? " Lazy Evaluations: " + lazyEvaluations : "") +
+                (tablebase != null ? " Tablebase Hits: " + tablebaseHits
+                        + " (Block Cache Hits: " + tablebase.getCacheHits() + " Misses: " + tablebase.getCacheMisses() + ")" : "") +
+                " Time: " + (System.currentTimeMillis() - startTime) + "ms" +
+                (ponderHits + ponderMisses > 0 ? " Ponder Hits: " + ponderHits + " Misses: " + ponderMisses
+                        + (ponderHit != null ? " (Pondered Depth: " + ponderHit.completedDepth + ")" : "") : "") +
+                " BMC: " + bestMoveCosts +
+                " Cutoffs (" + moveOrdering.cutoffReport() + ")" +
+                (principalVariationSearch
+                        ? " PVS (Re-searches: " + researches + " Aspiration Re-searches: " + aspirationResearches + ")"
+                        : " Negamax") +
+                " " + Constants.searchDriverNames[searchDriver]
+                + (searchDriver == Constants.searchDriver_MTDf ? " (Passes: " + mtdfPasses + ")" : "")
+                + " Driver Nodes (" + searchDriverNodesReport() + ")" +
+                (futilityPruning || lateMoveReductions || probCut
+                        ? " Selective (Futility Prunes: " + futilityPrunes
+                        + " Reductions: " + lateMoveReductionCount + " Re-searches: " + lateMoveResearches
+                        + " ProbCuts: " + probCuts + "/" + probCutSearches + ")"
+                        : "") +
+                " Extensions: " + extensions +
+                (searchThreads > 1
+                        ? " " + Constants.parallelSearchNames[parallelSearch] + " Threads: " + searchThreads
+                        : ""));
+    }
+
+    /**
+     * @return Nodes searched with each driver, e.g. "Alpha-Beta: 1000 MTD(f): 800"
+     */
+    private String searchDriverNodesReport() {
+        StringBuilder report = new StringBuilder();
+        for (int driver = 0; driver < searchDriverNodes.length; driver++) {
+            report.append(driver > 0 ? " " : "").append(Constants.searchDriverNames[driver])
+                    .append(": ").append(searchDriverNodes[driver]);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Searches the root to the given depth.
+     * With PVS the window is centred on the previous iteration's score (aspiration window).
+     * If the score falls outside, the window is widened on that side and the root searched again.
+     * With MTD(f) (and a transposition table) the root gets zero window searches instead (see mtdf).
+     *
+     * @param depth         Depth of the iteration
+     * @param previousScore Score of the previous iteration
+     * @return Root score
+     */
+    private int searchRoot(int depth, int previousScore) {
+        if (searchDriver == Constants.searchDriver_MTDf && transpositionTable != null
+                && depth > 1 && Math.abs(previousScore) <= WIN_SCORE_THRESHOLD) {
+            return mtdf(depth, previousScore);
+        }
+        if (!principalVariationSearch || depth == 1 || Math.abs(previousScore) > WIN_SCORE_THRESHOLD) {
+            return searchRoot(depth, -INFINITY, INFINITY);
+        }
+
+        int window = ASPIRATION_WINDOW;
+        int alpha = previousScore - window,
+                beta = previousScore + window;
+        while (true) {
+            int score = searchRoot(depth, alpha, beta);
+            if (stopSearch) {
+                return score;
+            }
+            window *= ASPIRATION_WIDENING_FACTOR;
+            if (score <= alpha) {
+                // Fail low
+                alpha = Math.max(score - window, -INFINITY);
+            } else if (score >= beta) {
+                // Fail high
+                beta = Math.min(score + window, INFINITY);
+            } else {
+                return score;
+            }
+            aspirationResearches++;
+        }
+    }
+
+    /**
+     * MTD(f): zero window searches of the root, each around the last one's score (moved by at least
+     * mtdfStep), until the bounds they prove meet. Every pass but the first finds most of its positions
+     * in the transposition table.
+     * A pass that fails low does not say which move is best, so the best move is the one of the last
+     * pass that failed high.
+     *
+     * @param depth      Depth of the iteration
+     * @param firstGuess Expected score (the previous iteration's)
+     * @return Root score
+     */
+    private int mtdf(int depth, int firstGuess) {
+        int score = firstGuess, guess = firstGuess;
+        int lowerBound = -INFINITY, upperBound = INFINITY;
+        int failHighMove = TranspositionTable.NO_MOVE, failHighMoveCaptured = 0;
+        while (lowerBound < upperBound) {
+            int beta = Math.min(Math.max(guess, lowerBound + 1), upperBound);
+            score = searchRoot(depth, beta - 1, beta);
+            if (stopSearch) {
+                return score;
+            }
+            mtdfPasses++;
+            if (score < beta) {
+                upperBound = score;
+                guess = Math.min(score, beta - mtdfStep);
+            } else {
+                lowerBound = score;
+                guess = Math.max(score, beta + mtdfStep);
+                failHighMove = bestMove;
+                failHighMoveCaptured = bestMoveCaptured;
+            }
+        }
+        if (failHighMove != TranspositionTable.NO_MOVE) {
+            bestMove = failHighMove;
+            bestMoveCaptured = failHighMoveCaptured;
+        }
+        return score;
+    }
+
+    private int searchRoot(int depth, int alpha, int beta) {
+        if (searchThreads > 1 && parallelSearch == Constants.parallelSearch_RootSplit && depth > 1) {
+            return parallelRootSearch(depth, alpha, beta);
+        }
+        return this.negamaxAB(depth, 0, alpha, beta, computerPlayerID);
+    }
+
+    /**
+     * negamaxAB's root, split across the search pool.
+     * The first (hash) move is searched alone to get a good alpha.
+     * Every other root move is then searched by a pool task, starting
+     * from the best alpha found so far (sharedAlpha), so root moves
+     * searched later get tighter windows.
+     *
+     * @return Root score (fail-soft, like negamaxAB)
+     */
+    private int parallelRootSearch(int depth, int alpha, int beta) {
+        int[] rootMoves = moveBuffers[0];
+        int rootMoveCount = generateMoves(computerPlayerID, rootMoves);
+        long key = hashKey ^ Zobrist.sideToMove(computerPlayerID);
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (transpositionTable != null) {
+            hashMove = TranspositionTable.move(transpositionTable.probe(key));
+        }
+        moveOrdering.orderMoves(rootMoves, rootMoveCount, 0, hashMove);
+
+        // First move
+        UndoRecord undo = undoRecords[0];
+        makeMove(rootMoves[0], rootMoves[1], undo);
+        int score = -negamaxAB(depth - 1, 1, -beta, -alpha, computerPlayerID);
+        unmakeMove(rootMoves[0], undo);
+        if (stopSearch) {
+            return 0;
+        }
+        bestMove = rootMoves[0];
+        bestMoveCaptured = rootMoves[1];
+        rootBestScore = score;
+        sharedAlpha.set(Math.max(alpha, score));
+
+        // Other moves
+        if (score < beta) {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[rootMoveCount - 1];
+            for (int i = 1; i < rootMoveCount; i++) {
+                int move = rootMoves[i * PackedMove.SIZE], captured = rootMoves[i * PackedMove.SIZE + 1];
+                tasks[i - 1] = getSearchPool().submit(() -> searchRootMove(move, captured, depth, beta));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            if (stopSearch) {
+                return 0;
+            }
+        }
+
+        if (transpositionTable != null) {
+            int bound = rootBestScore <= alpha ? TranspositionTable.UPPER_BOUND
+                    : rootBestScore >= beta ? TranspositionTable.LOWER_BOUND
+                    : TranspositionTable.EXACT;
+            transpositionTable.store(key, depth, bound, rootBestScore, PackedMove.squares(bestMove));
+        }
+        return rootBestScore;
+    }
+
+    /**
+     * Pool task: searches one root move on a borrowed worker
+     *
+     * @param move     Root move (packed)
+     * @param captured Pieces it captures
+     * @param depth    Depth of the iteration
+     * @param beta     Root beta
+     */
+    private void searchRootMove(int move, int captured, int depth, int beta) {
+        int alpha = sharedAlpha.get();
+        if (stopSearch || alpha >= beta) {
+            return;
+        }
+
+        AI_Heuristic worker = borrowWorker();
+        worker.completedDepth = completedDepth;
+
+        UndoRecord undo = worker.undoRecords[0];
+        worker.makeMove(move, captured, undo);
+        int score;
+        if (principalVariationSearch) {
+            score = -worker.negamaxAB(depth - 1, 1, -alpha - 1, -alpha, computerPlayerID);
+            alpha = sharedAlpha.get();
+            if (score > alpha && score < beta && !worker.stopSearch) {
+                score = -worker.negamaxAB(depth - 1, 1, -beta, -alpha, computerPlayerID);
+            }
+        } else {
+            score = -worker.negamaxAB(depth - 1, 1, -beta, -alpha, computerPlayerID);
+        }
+        worker.unmakeMove(move, undo);
+
+        synchronized (rootMoveLock) {
+            nodes += worker.nodes;
+            quiescenceNodes += worker.quiescenceNodes;
+            tablebaseHits += worker.tablebaseHits;
+            evaluationCacheHits += worker.evaluationCacheHits;
+            evaluationCacheProbes += worker.evaluationCacheProbes;
+            menStructureCacheHits += worker.menStructureCacheHits;
+            menStructureCacheProbes += worker.menStructureCacheProbes;
+            lazyEvaluations += worker.lazyEvaluations;
+            futilityPrunes += worker.futilityPrunes;
+            lateMoveReductionCount += worker.lateMoveReductionCount;
+            lateMoveResearches += worker.lateMoveResearches;
+            probCutSearches += worker.probCutSearches;
+            probCuts += worker.probCuts;
+            extensions += worker.extensions;
+            moveOrdering.addCutoffs(worker.moveOrdering);
+            if (worker.stopSearch) {
+                stopSearch = true;
+            } else if (score > rootBestScore) {
+                rootBestScore = score;
+                bestMove = move;
+                bestMoveCaptured = captured;
+            }
+        }
+        if (!worker.stopSearch) {
+            sharedAlpha.accumulateAndGet(score, Math::max);
+        }
+        idleWorkers.add(worker);
+    }
+
+    /**
+     * Lazy SMP: starts searchThreads - 1 helpers running their own iterative deepening
+     * on the root position. Helpers share the transposition table with this thread,
+     * so their results become cutoffs and hash moves here.
+     * Odd helpers start one depth ahead, so that the threads do not all search the same depth.
+     *
+     * @return Helper workers, or null if Lazy SMP is off
+     */
+    private AI_Heuristic[] startLazySMPHelpers() {
+        if (searchThreads < 2 || parallelSearch != Constants.parallelSearch_LazySMP) {
+            return null;
+        }
+        AI_Heuristic[] helpers = new AI_Heuristic[searchThreads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            AI_Heuristic helper = borrowWorker();
+            int firstDepth = 1 + (i + 1) % 2;
+            helper.helperTask = getSearchPool().submit(() -> helper.lazySMPHelperSearch(firstDepth));
+            helpers[i] = helper;
+        }
+        return helpers;
+    }
+
+    private void lazySMPHelperSearch(int firstDepth) {
+        for (int depth = firstDepth; depth <= DEPTH && !stopSearch; depth++) {
+            this.negamaxAB(depth, 0, -INFINITY, INFINITY, computerPlayerID);
+        }
+    }
+
+    /**
+     * Stops the Lazy SMP helpers and waits for them to unwind
+     *
+     * @param helpers Workers returned by startLazySMPHelpers
+     */
+    private void stopLazySMPHelpers(AI_Heuristic[] helpers) {
+        if (helpers == null) {
+            return;
+        }
+        for (AI_Heuristic helper : helpers) {
+            helper.stopSearch = true;
+        }
+        for (AI_Heuristic helper : helpers) {
+            helper.helperTask.join();
+            helper.helperTask = null;
+            nodes += helper.nodes;
+            quiescenceNodes += helper.quiescenceNodes;
+            tablebaseHits += helper.tablebaseHits;
+            evaluationCacheHits += helper.evaluationCacheHits;
+            evaluationCacheProbes += helper.evaluationCacheProbes;
+            menStructureCacheHits += helper.menStructureCacheHits;
+            menStructureCacheProbes += helper.menStructureCacheProbes;
+            lazyEvaluations += helper.lazyEvaluations;
+            futilityPrunes += helper.futilityPrunes;
+            lateMoveReductionCount += helper.lateMoveReductionCount;
+            lateMoveResearches += helper.lateMoveResearches;
+            probCutSearches += helper.probCutSearches;
+            probCuts += helper.probCuts;
+            extensions += helper.extensions;
+            moveOrdering.addCutoffs(helper.moveOrdering);
+            idleWorkers.add(helper);
+        }
+    }
+
+    /**
+     * Starts searching on the opponent's time. The opponent's replies are searched in a background thread
+     * (all of them if there are at most Constants.default_PONDER_ALL_REPLIES, otherwise the expected one:
+     * the hash move of the last search, or the best move of a shallow search),
+     * deepening one depth at a time, each reply as if this AI had to move after it.
+     * Pondering stops when getBestMove is called (or stopPondering / stopSearch).
+     * Starting and stopping are synchronized (with getBestMove): the game calls them from both the event thread
+     * and its move timer.
+     *
+     * @param board Board with the opponent to move
+     */
+    synchronized void startPondering(Piece[][] board) {
+        stopPondering();
+        if (!pondering || difficulty <= 1) {
+            return;
+        }
+        updateGameBoard(board);
+        if (bitBoardSearch) {
+            position.setFromPieces(gameBoard);
+        }
+        hashKey = Zobrist.hash(gameBoard);
+        BitBoard rootPosition = bitBoardSearch ? position : new BitBoard(gameBoard);
+        piecesOnBoard = Integer.bitCount(rootPosition.red | rootPosition.black);
+        evaluationState.set(rootPosition);
+        int opponentID = computerPlayerID == RED ? BLACK : RED;
+        int[] replies = moveBuffers[0];
+        int replyCount = generateMoves(opponentID, replies);
+        if (replyCount == 0) {
+            return;
+        }
+        if (transpositionTable == null && transpositionTableSizeInMB > 0) {
+            transpositionTable = new TranspositionTable(transpositionTableSizeInMB);
+        }
+        ageSearchTables();
+
+        if (replyCount <= Constants.default_PONDER_ALL_REPLIES) {
+            ponderReplies = new PonderReply[replyCount];
+            for (int i = 0; i < replyCount; i++) {
+                ponderReplies[i] = new PonderReply(replies[i * PackedMove.SIZE], replies[i * PackedMove.SIZE + 1]);
+            }
+        } else {
+            int hashMove = TranspositionTable.NO_MOVE;
+            if (transpositionTable != null) {
+                hashMove = TranspositionTable.move(transpositionTable.probe(hashKey ^ Zobrist.sideToMove(opponentID)));
+            }
+            PonderReply expectedReply = new PonderReply(TranspositionTable.NO_MOVE, 0);
+            for (int i = 0; i < replyCount; i++) {
+                if (PackedMove.squares(replies[i * PackedMove.SIZE]) == hashMove) {
+                    expectedReply = new PonderReply(replies[i * PackedMove.SIZE], replies[i * PackedMove.SIZE + 1]);
+                }
+            }
+            ponderReplies = new PonderReply[]{expectedReply};
+        }
+
+        searchDeadline = Long.MAX_VALUE;
+        AI_Heuristic worker = borrowWorker();
+        PonderReply[] workerReplies = ponderReplies;
+        ponderWorker = worker;
+        ponderThread = new Thread(() -> worker.ponder(workerReplies, opponentID), "Ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    /**
+     * Stops pondering (the transposition table keeps what it found)
+     */
+    void stopPondering() {
+        stopPondering(0);
+    }
+
+    /**
+     * @param key Zobrist key of the position now on the board
+     * @return The pondered reply that led to this position, or null (ponder miss)
+     */
+    private synchronized PonderReply stopPondering(long key) {
+        if (ponderThread == null) {
+            return null;
+        }
+        ponderWorker.stopSearch = true;
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        idleWorkers.add(ponderWorker);
+
+        PonderReply hit = null;
+        for (PonderReply reply : ponderReplies) {
+            if (reply.reply != TranspositionTable.NO_MOVE && reply.hashKey == key) {
+                hit = reply;
+            }
+        }
+        if (hit != null && hit.completedDepth == 0) {
+            // Reached, but not searched (a forced move, or stopped before depth 1 finished)
+            hit = null;
+        } else if (hit != null) {
+            ponderHits++;
+        } else if (key != 0) {
+            ponderMisses++;
+        }
+        ponderThread = null;
+        ponderWorker = null;
+        ponderReplies = null;
+        return hit;
+    }
+
+    /**
+     * Ponder thread (runs on a worker): iterative deepening over the positions after the replies
+     *
+     * @param replies    Replies to search (filled in with their results)
+     * @param opponentID Player making the replies
+     */
+    private void ponder(PonderReply[] replies, int opponentID) {
+        searchThreads = 1; // The ponder thread searches alone
+        if (replies[0].reply == TranspositionTable.NO_MOVE) {
+            // No hash move to expect, let a shallow search pick the reply
+            bestMove = TranspositionTable.NO_MOVE;
+            negamaxAB(Math.min(PONDER_GUESS_DEPTH, DEPTH), 0, -INFINITY, INFINITY, opponentID);
+            if (stopSearch || bestMove == TranspositionTable.NO_MOVE) {
+                return;
+            }
+            replies[0].reply = bestMove;
+            replies[0].replyCaptured = bestMoveCaptured;
+        }
+
+        UndoRecord undo = new UndoRecord();
+        boolean[] finished = new boolean[replies.length];
+        for (int depth = 1; depth <= DEPTH; depth++) {
+            for (int i = 0; i < replies.length; i++) {
+                if (finished[i]) {
+                    continue;
+                }
+                PonderReply reply = replies[i];
+                long startTime = System.currentTimeMillis();
+                makeMove(reply.reply, reply.replyCaptured, undo);
+                reply.hashKey = hashKey;
+                int moveCount = generateMoves(computerPlayerID, moveBuffers[0]);
+                int score = 0;
+                if (moveCount > 1) {
+                    bestMove = TranspositionTable.NO_MOVE;
+                    score = searchRoot(depth, reply.score);
+                }
+                unmakeMove(reply.reply, undo);
+                if (stopSearch) {
+                    return;
+                }
+                if (moveCount < 2) {
+                    // getBestMove does not search these
+                    finished[i] = true;
+                    continue;
+                }
+                reply.completedDepth = depth;
+                reply.bestMove = bestMove;
+                reply.bestMoveCaptured = bestMoveCaptured;
+                reply.score = score;
+                reply.timeSpent += System.currentTimeMillis() - startTime;
+                finished[i] = Math.abs(score) > WIN_SCORE_THRESHOLD;
+            }
+        }
+    }
+
+    private ForkJoinPool getSearchPool() {
+        if (searchPool == null) {
+            searchPool = new ForkJoinPool(searchThreads);
+        }
+        return searchPool;
+    }
+
+    /**
+     * @return An idle worker, set up on the root position (gameBoard is not touched while workers search)
+     */
+    private AI_Heuristic borrowWorker() {
+        AI_Heuristic worker = idleWorkers.poll();
+        if (worker == null) {
+            worker = new AI_Heuristic(computerPlayerID, difficulty, gameBoard, numRowsAndColumns);
+            worker.quiescenceDepth = quiescenceDepth;
+            worker.setMaxDepth(DEPTH);
+            if (worker.evaluationCacheSizeInKB != evaluationCacheSizeInKB) {
+                worker.setEvaluationCacheSize(evaluationCacheSizeInKB);
+            }
+            if (worker.menStructureCacheSizeInKB != menStructureCacheSizeInKB) {
+                worker.setMenStructureCacheSize(menStructureCacheSizeInKB);
+            }
+            workers.add(worker);
+        }
+        // The other settings can change between searches without dropping the workers
+        // (the depth and cache size setters drop them), so they are copied on every borrow
+        worker.bitBoardSearch = bitBoardSearch;
+        worker.principalVariationSearch = principalVariationSearch;
+        worker.fusedEvaluation = fusedEvaluation;
+        worker.incrementalEvaluation = incrementalEvaluation;
+        worker.searchDriver = searchDriver;
+        worker.mtdfStep = mtdfStep;
+        worker.tablebase = tablebase;
+        worker.evaluationNoise = evaluationNoise;
+        worker.lazyEvaluation = lazyEvaluation;
+        worker.futilityPruning = futilityPruning;
+        worker.lateMoveReductions = lateMoveReductions;
+        worker.probCut = probCut;
+        worker.setSelectiveMargins(futilityMargins, probCutMargin);
+        worker.setExtensions(promotionExtension, singleReplyExtension, captureExtension);
+        worker.extensionBudget = extensionBudget;
+        if (bitBoardSearch) {
+            worker.position.setFromPieces(gameBoard);
+        } else {
+            copyBoard(gameBoard, worker.gameBoard);
+        }
+        worker.transpositionTable = transpositionTable;
+        worker.hashKey = hashKey;
+        worker.piecesOnBoard = piecesOnBoard;
+        worker.evaluationState.set(bitBoardSearch ? worker.position : new BitBoard(worker.gameBoard));
+        worker.searchDeadline = searchDeadline;
+        worker.completedDepth = 0;
+        worker.stopSearch = false;
+        worker.nodes = 0;
+        worker.quiescenceNodes = 0;
+        worker.tablebaseHits = 0;
+        worker.evaluationCacheHits = 0;
+        worker.evaluationCacheProbes = 0;
+        worker.menStructureCacheHits = 0;
+        worker.menStructureCacheProbes = 0;
+        worker.lazyEvaluations = 0;
+        worker.futilityPrunes = 0;
+        worker.lateMoveReductionCount = 0;
+        worker.lateMoveResearches = 0;
+        worker.probCutSearches = 0;
+        worker.probCuts = 0;
+        worker.extensions = 0;
+        worker.moveOrdering.clearCutoffs();
+        worker.extensionCarry[1] = 0; // (Root split workers start at ply 1)
+        return worker;
+    }
+
+    // Remember 2 ply = 1 move
+    // The whole search runs on one board (gameBoard, or position in BitBoard mode).
+    //      Each move is made before searching the child and unmade afterwards,
+    //      with the undo record of its ply holding whatever the move destroyed.
+    // To change the algorithm to N players we would need to
+    //      Change the Switch Players section, which would depend on the particular
+    //      game's internal structure (i.e. does 1->2->3? Or can 1->3->1->2? etc.)
+    private int negamaxAB(int depth, int ply, int alpha, int beta, int playerID) {
+        // Switch Players if not on first iteration
+        if (ply != 0) {
+            playerID = playerID == RED ? BLACK : RED;
+        }
+
+        if (countNode()) {
+            return 0;
+        }
+
+        // Endgames with few pieces left are known exactly (the root always searches, it needs a move)
+        if (ply > 0 && tablebase != null && piecesOnBoard <= tablebase.getMaxPieces()) {
+            int score = probeTablebase(ply, playerID);
+            if (score != EndgameTablebase.NOT_FOUND) {
+                return score;
+            }
+        }
+
+        if (depth == 0) {
+            // Resolve pending jumps before trusting the static score
+            return quiescence(ply, 0, alpha, beta, playerID);
+        }
+
+        // Probe the transposition table (the root always searches, it needs a move)
+        long key = hashKey ^ Zobrist.sideToMove(playerID);
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (transpositionTable != null) {
+            long entry = transpositionTable.probe(key);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT) {
+                        return score;
+                    } else if (bound == TranspositionTable.LOWER_BOUND) {
+                        alpha = Math.max(alpha, score);
+                    } else {
+                        beta = Math.min(beta, score);
+                    }
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int[] legalMoveList = moveBuffers[ply];
+        int moveCount = generateMoves(playerID, legalMoveList);
+        if (moveCount == 0) {
+            // No legal moves: the player to move has lost
+            return -WIN_SCORE + ply;
+        }
+
+        // Hash move first, then killers, then by history
+        moveOrdering.orderMoves(legalMoveList, moveCount, ply, hashMove);
+
+        UndoRecord undo = undoRecords[ply];
+        // Selective search only prunes quiet positions (jumps are forced) of null window nodes
+        boolean selective = ply > 0 && beta - alpha == 1 && legalMoveList[1] == 0
+                && Math.abs(beta) < WIN_SCORE_THRESHOLD;
+        if (selective && probCut && depth >= PROBCUT_DEPTH) {
+            int probCutBeta = beta + probCutMargin;
+            for (int i = 0; i < Math.min(moveCount, PROBCUT_MOVES); i++) {
+                int move = legalMoveList[i * PackedMove.SIZE];
+                makeMove(move, 0, undo);
+                extensionCarry[ply + 1] = extensionCarry[ply]; // (The probe extends nothing, but passes the carry on)
+                probCutSearches++;
+                int val = -negamaxAB(depth - 1 - PROBCUT_REDUCTION, ply + 1, -probCutBeta, -probCutBeta + 1, playerID);
+                unmakeMove(move, undo);
+                if (stopSearch) {
+                    return 0;
+                }
+                if (val >= probCutBeta) {
+                    probCuts++;
+                    return val;
+                }
+            }
+        }
+        boolean measureProbCut = selective && marginCounts != null && depth >= PROBCUT_DEPTH;
+        if (measureProbCut) {
+            // The scores of the shallow searches, to compare with the moves' full depth searches below
+            for (int i = 0; i < Math.min(moveCount, PROBCUT_MOVES); i++) {
+                int move = legalMoveList[i * PackedMove.SIZE];
+                makeMove(move, 0, undo);
+                extensionCarry[ply + 1] = extensionCarry[ply];
+                probCutValues[ply][i] = -negamaxAB(depth - 1 - PROBCUT_REDUCTION, ply + 1, -INFINITY, INFINITY, playerID);
+                unmakeMove(move, undo);
+            }
+        }
+        boolean futility = selective && futilityPruning && depth < futilityMargins.length,
+                measureFutility = selective && marginCounts != null && depth <= MARGIN_PROBCUT - MARGIN_FUTILITY;
+
+        int alphaOriginal = alpha;
+        int bestValue = -INFINITY;
+        int bestLocalMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < moveCount; i++) {
+            int move = legalMoveList[i * PackedMove.SIZE], captured = legalMoveList[i * PackedMove.SIZE + 1];
+            boolean quiet = selective && !PackedMove.isPromotion(move);
+            makeMove(move, captured, undo);
+            int childScore = NO_FUTILITY_SCORE;
+            if (quiet && i > 0 && (futility || measureFutility)) {
+                childScore = futilityScore(depth, ply, playerID);
+                if (futility && childScore != NO_FUTILITY_SCORE && childScore + futilityMargins[depth] <= alpha) {
+                    // Futile: the move is not expected to raise the child's score by more than the margin
+                    unmakeMove(move, undo);
+                    futilityPrunes++;
+                    bestValue = Math.max(bestValue, childScore + futilityMargins[depth]);
+                    continue;
+                }
+            }
+            int childDepth = depth - 1 + extension(ply, depth, move, moveCount, playerID);
+            int val = alpha + 1; // Searched at full depth, unless a reduced search fails low
+            if (quiet && lateMoveReductions && i >= LMR_MOVES && depth >= LMR_DEPTH && childDepth < depth) {
+                lateMoveReductionCount++;
+                val = -negamaxAB(childDepth - LMR_REDUCTION, ply + 1, -alpha - 1, -alpha, playerID);
+                if (val > alpha && !stopSearch) {
+                    lateMoveResearches++;
+                }
+            }
+            if (val > alpha && !stopSearch) {
+                if (i == 0 || !principalVariationSearch) {
+                    val = -negamaxAB(childDepth, ply + 1, -beta, -alpha, playerID);
+                } else {
+                    // Null window: only prove that the move is no better than the first one
+                    val = -negamaxAB(childDepth, ply + 1, -alpha - 1, -alpha, playerID);
+                    if (val > alpha && val < beta && !stopSearch) {
+                        // Fail high: it is better, search it again with the full window to get its score
+                        researches++;
+                        val = -negamaxAB(childDepth, ply + 1, -beta, -alpha, playerID);
+                    }
+                }
+            }
+            unmakeMove(move, undo);
+            if (stopSearch) {
+                // Unfinished search, the score is meaningless
+                return 0;
+            }
+            if (measureFutility && childScore != NO_FUTILITY_SCORE) {
+                // Pruned by any margin up to alpha - childScore, wrongly if the move beats alpha
+                countMargin(MARGIN_FUTILITY + depth - 1, alpha - childScore, val > alpha);
+            }
+            if (measureProbCut && i < PROBCUT_MOVES) {
+                // Cut by any margin up to the shallow score - beta, wrongly if the move fails low at full depth
+                countMargin(MARGIN_PROBCUT, probCutValues[ply][i] - beta, val < beta);
+            }
+
+            if (val > bestValue) {
+                bestValue = val;
+                bestLocalMove = move;
+                if (ply == 0) {
+                    bestMove = move;
+                    bestMoveCaptured = captured;
+                }
+            }
+            alpha = Math.max(alpha, val);
+            if (alpha >= beta) {
+                moveOrdering.cutoff(move, captured, i, ply, depth);
+                break;
+            }
+        }
+
+        if (transpositionTable != null) {
+            int bound = bestValue <= alphaOriginal ? TranspositionTable.UPPER_BOUND
+                    : bestValue >= beta ? TranspositionTable.LOWER_BOUND
+                    : TranspositionTable.EXACT;
+            transpositionTable.store(key, depth, bound, scoreToTable(bestValue, ply),
+                    PackedMove.squares(bestLocalMove));
+        }
+        return bestValue;
+    }
+
+    /**
+     * Static score of the position a quiet move just made leads to, for futility pruning: the score the leaves
+     * depth - 1 plies below it would get if nothing changed, from the side of the player who moved,
+     * with the most noise they can add.
+     * The Hard score of a position is not the negation of the opponent's score of it, so it is the score
+     * of the side the leaves are evaluated for (at depth 1, exactly what the child's quiescence search returns).
+     *
+     * @param depth    Remaining depth of the position the move was made from
+     * @param ply      Ply of that position
+     * @param playerID Player who made the move
+     * @return NO_FUTILITY_SCORE if the child is not quiet (a jump is pending or it has no moves)
+     * or is scored by the tablebase
+     */
+    private int futilityScore(int depth, int ply, int playerID) {
+        int opponentID = playerID == RED ? BLACK : RED;
+        int[] replies = moveBuffers[ply + 1]; // (Not in use until the child is searched)
+        if (generateMoves(opponentID, replies) == 0 || replies[1] != 0
+                || tablebase != null && piecesOnBoard <= tablebase.getMaxPieces()) {
+            return NO_FUTILITY_SCORE;
+        }
+        if ((depth - 1) % 2 == 0) {
+            return -evaluateHeuristic(opponentID, -INFINITY, INFINITY) - RMIN;
+        }
+        return evaluateHeuristic(playerID, -INFINITY, INFINITY) + RMAX;
+    }
+
+    /**
+     * @param kind   MARGIN_FUTILITY + depth - 1 or MARGIN_PROBCUT
+     * @param margin Largest margin that prunes or cuts the move (negative - none)
+     * @param wrong  True - the full search shows the move must not be pruned or cut
+     */
+    private void countMargin(int kind, int margin, boolean wrong) {
+        int bucket = margin < 0 ? 0 : 1 + Math.min(margin / MARGIN_BUCKET, MARGIN_BUCKETS - 2);
+        marginCounts[kind][0][bucket]++;
+        if (wrong) {
+            marginCounts[kind][1][bucket]++;
+        }
+    }
+
+    /**
+     * Extension of the move just made (see promotionExtension): its fractions of a ply are added to
+     * those the path has not used, and the child is searched a ply deeper once they reach ONE_PLY.
+     * Sets extensionCarry[ply + 1].
+     *
+     * @param ply       Ply of the position the move was made from
+     * @param depth     Remaining depth of that position
+     * @param move      The move (packed)
+     * @param moveCount Legal moves of the position
+     * @param playerID  Player who made the move
+     * @return Plies the child's depth is extended by (0 or 1)
+     */
+    private int extension(int ply, int depth, int move, int moveCount, int playerID) {
+        int carry = extensionCarry[ply];
+        if (extensions * 100 < nodes * extensionBudget && ply + depth < 2 * DEPTH) {
+            if (PackedMove.isPromotion(move)) {
+                carry += promotionExtension;
+            }
+            if (moveCount == 1) {
+                carry += singleReplyExtension;
+            }
+            if (captureExtension > 0 && capturePending(playerID)) {
+                carry += captureExtension;
+            }
+        }
+        if (carry < ONE_PLY) {
+            extensionCarry[ply + 1] = carry;
+            return 0;
+        }
+        extensionCarry[ply + 1] = Math.min(carry - ONE_PLY, ONE_PLY - 1);
+        extensions++;
+        return 1;
+    }
+
+    /**
+     * @param playerID Player who just moved
+     * @return True if either player has a jump in the position being searched
+     */
+    private boolean capturePending(int playerID) {
+        BitBoard board = position;
+        if (!bitBoardSearch) {
+            leafPosition.setFromPieces(gameBoard);
+            board = leafPosition;
+        }
+        return board.jumpers(playerID) != 0 || board.jumpers(playerID == RED ? BLACK : RED) != 0;
+    }
+
+    /**
+     * Capture-only search below the depth cap.
+     * Jumps are forced, so a player with a jump available cannot "stand pat" on the static score:
+     * every jump is searched until a quiet position (no jump for the player to move) is reached.
+     * In a quiet position the static score is returned, as negamaxAB used to do at depth 0.
+     *
+     * @param ply            Distance from the root
+     * @param quiescencePly  Plies searched past the depth cap (capped at quiescenceDepth)
+     * @param alpha          Lower bound
+     * @param beta           Upper bound
+     * @param playerID       Player to move (unlike negamaxAB, not switched on entry)
+     * @return Score for playerID
+     */
+    private int quiescence(int ply, int quiescencePly, int alpha, int beta, int playerID) {
+        int[] jumps = moveBuffers[ply];
+        int jumpCount = quiescencePly < quiescenceDepth ? generateMoves(playerID, jumps) : 0;
+        if (jumpCount == 0 && quiescencePly < quiescenceDepth) {
+            // No legal moves: the player to move has lost
+            return -WIN_SCORE + ply;
+        }
+        if (jumpCount == 0 || jumps[1] == 0) {
+            // Quiet position (or quiescence depth reached)
+            // If there are equal scores, then the game is completely deterministic
+            // So, to prevent this, we add a pseudo-random number.
+            int score = evaluateHeuristic(playerID, alpha, beta);
+            return evaluationNoise ? score + randomInt(RMIN, RMAX) : score;
+        }
+
+        int opponentID = playerID == RED ? BLACK : RED;
+        int bestValue = -INFINITY;
+        UndoRecord undo = undoRecords[ply];
+        for (int i = 0; i < jumpCount; i++) {
+            int jump = jumps[i * PackedMove.SIZE];
+            makeMove(jump, jumps[i * PackedMove.SIZE + 1], undo);
+            int val = 0;
+            quiescenceNodes++;
+            if (!countNode()) {
+                val = -quiescence(ply + 1, quiescencePly + 1, -beta, -alpha, opponentID);
+            }
+            unmakeMove(jump, undo);
+            if (stopSearch) {
+                return 0;
+            }
 
-        this.DEPTH = difficulty * DEPTH_DIFFICULTY_FACTOR;
+            bestValue = Math.max(bestValue, val);
+            alpha = Math.max(alpha, val);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return bestValue;
     }
 
-    public int getComputerPlayerID() {
-        return computerPlayerID;
+    /**
+     * @param ply      Distance from the root
+     * @param playerID Player to move
+     * @return Exact score of the position, or EndgameTablebase.NOT_FOUND
+     */
+    private int probeTablebase(int ply, int playerID) {
+        BitBoard probed = position;
+        if (!bitBoardSearch) {
+            tablebasePosition.setFromPieces(gameBoard);
+            probed = tablebasePosition;
+        }
+        int value = tablebase.probe(probed, playerID);
+        if (value == EndgameTablebase.NOT_FOUND) {
+            return value;
+        }
+        tablebaseHits++;
+        // Same scale as a search that reaches the end of the game (see negamaxAB)
+        if (EndgameTablebase.isWin(value)) {
+            return WIN_SCORE - ply - EndgameTablebase.distance(value);
+        } else if (EndgameTablebase.isLoss(value)) {
+            return -WIN_SCORE + ply + EndgameTablebase.distance(value);
+        }
+        return 0;
     }
 
-    Move getBestMove() {
-        if (difficulty > 1) {
-            int a = this.negamaxAB(gameBoard, DEPTH, Integer.MIN_VALUE, Integer.MAX_VALUE, computerPlayerID);
-            bestMoveCosts += a;
-            System.out.println("Best Move SCORE For " + computerPlayerID + ": " + a
-                    + " (" + bestMove.fromRow + ", " + bestMove.fromCol +
-                    ") -> (" + bestMove.toRow + ", " + bestMove.toCol + ")" +
-                    " Depth: " + DEPTH +
-                    " BMC: " + bestMoveCosts);
-            return bestMove;
+    /**
+     * Counts a node and checks the clock every 1024 nodes
+     * (depth 1 always finishes, so there is a move to play)
+     *
+     * @return True if the search has to stop
+     */
+    private boolean countNode() {
+        if ((++nodes & 1023) == 0 && completedDepth > 0 && System.currentTimeMillis() >= searchDeadline) {
+            stopSearch = true;
         }
+        return stopSearch;
+    }
 
-        Move[] legalMoves = getLegalMoves(gameBoard, computerPlayerID);
-        return legalMoves[(int) (legalMoves.length * Math.random())];
-
+    /*
+     * Win scores depend on the ply they are found at.
+     * The table stores them relative to the position instead of the root.
+     */
+    private int scoreToTable(int score, int ply) {
+        if (score > WIN_SCORE_THRESHOLD) {
+            return score + ply;
+        } else if (score < -WIN_SCORE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
 
+    private int scoreFromTable(int score, int ply) {
+        if (score > WIN_SCORE_THRESHOLD) {
+            return score - ply;
+        } else if (score < -WIN_SCORE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
     }
 
-    // Remember 2 ply = 1 move
-    // To speed up negamax we need to change the board. Here, we have a 2D object array.
-    //      If we converted the board to bits then we can implement this much faster
-    // To change the algorithm to N players we would need to
-    //      Change the Switch Players section, which would depend on the particular
-    //      game's internal structure (i.e. does 1->2->3? Or can 1->3->1->2? etc.)
-    private int negamaxAB(Piece[][] board, int depth, int alpha, int beta, int playerID) {
-        // Switch Players if not on first iteration
-        if (DEPTH != depth) {
-//            playerID = playerID == RED ? BLACK : RED;
-            if (playerID == RED) {
-                playerID = BLACK;
-            } else {
-                playerID = RED;
-            }
+    /*
+     * The search works on gameBoard or (in BitBoard mode) on position.
+     * These route each board operation to the one currently being searched.
+     */
+    private int generateMoves(int playerID, int[] moves) {
+        if (bitBoardSearch) {
+            return position.generateMoves(playerID, moves);
         }
-        Move[] legalMoveList = getLegalMoves(board, playerID);
-        if (depth == 0) {
-            // If there are equal scores, then the game is completely deterministic
-            // So, to prevent this, we add a pseudo-random number.
-            return evaluateHeuristic(board, playerID) + randomInt(RMIN, RMAX);
+        // Grid mode generates on the board's masks too, the moves are made on the grid
+        leafPosition.setFromPieces(gameBoard);
+        return leafPosition.generateMoves(playerID, moves);
+    }
+
+    private void makeMove(int move, int captured, UndoRecord undo) {
+        if (bitBoardSearch) {
+            position.makeMove(move, captured, undo);
+        } else {
+            makeMove(gameBoard, move, captured, undo);
         }
 
-        int bestValue = Integer.MIN_VALUE;
+        // Update the Zobrist key with the pieces the move changed
+        undo.hashKey = hashKey;
+        piecesOnBoard -= Integer.bitCount(undo.captured);
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        int pieceType = getPieceType(to);
+        boolean king = isKing(to);
+        hashKey ^= Zobrist.pieceKey(pieceType, king && !undo.promoted, from)
+                ^ Zobrist.pieceKey(pieceType, king, to);
+        evaluationState.remove(pieceType, king && !undo.promoted, from);
+        evaluationState.add(pieceType, king, to);
+        for (int jumped = undo.captured; jumped != 0; jumped &= jumped - 1) {
+            int square = Integer.numberOfTrailingZeros(jumped);
+            boolean capturedKing = (undo.capturedKings & (1 << square)) != 0;
+            hashKey ^= Zobrist.pieceKey(undo.capturedPieceType, capturedKing, square);
+            evaluationState.remove(undo.capturedPieceType, capturedKing, square);
+        }
+    }
 
-        if (legalMoveList != null) {
-            for (Move move : legalMoveList) {
-                // Create deep copy of board
-                Piece[][] newBoard = deepCopy(board);
-                makeMove(newBoard, move.fromRow, move.fromCol, move.toRow, move.toCol);
+    private void unmakeMove(int move, UndoRecord undo) {
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        int pieceType = getPieceType(to);
+        boolean king = isKing(to);
+        if (bitBoardSearch) {
+            position.unmakeMove(move, undo);
+        } else {
+            unmakeMove(gameBoard, move, undo);
+        }
+        hashKey = undo.hashKey;
+        piecesOnBoard += Integer.bitCount(undo.captured);
+        evaluationState.remove(pieceType, king, to);
+        evaluationState.add(pieceType, king && !undo.promoted, from);
+        for (int captured = undo.captured; captured != 0; captured &= captured - 1) {
+            int square = Integer.numberOfTrailingZeros(captured);
+            evaluationState.add(undo.capturedPieceType, (undo.capturedKings & (1 << square)) != 0, square);
+        }
+    }
 
-                int val = -negamaxAB(newBoard, depth - 1, -beta, -alpha, playerID);
+    private int getPieceType(int square) {
+        if (bitBoardSearch) {
+            int bit = 1 << square;
+            return (position.red & bit) != 0 ? RED : (position.black & bit) != 0 ? BLACK : EMPTY;
+        }
+        return gameBoard[BitBoard.rowOf(square)][BitBoard.colOf(square)].getPieceType();
+    }
 
-                // Delete created board to stop excess storage
-                // (indicates to garbage collector that this can be removed)
-                newBoard = null;
+    private boolean isKing(int square) {
+        if (bitBoardSearch) {
+            return (position.kings & (1 << square)) != 0;
+        }
+        return gameBoard[BitBoard.rowOf(square)][BitBoard.colOf(square)].isKing();
+    }
 
-                bestValue = Math.max(bestValue, val);
-                if (val >= alpha && depth == DEPTH) {
-                    bestMove = move;
-                }
-                alpha = Math.max(alpha, val);
-                if (alpha >= beta) {
-                    if (depth == DEPTH) {
-                        bestMove = move;
-                    }
-                    break;
-                }
+    /**
+     * Static score of the position being searched, looked up in the evaluation cache first.
+     * On Hard, with lazy evaluation, a position whose bounds cannot reach (alpha, beta) returns the bound
+     * (the search only needs to know it fails low or high) instead of its value.
+     * The value has no noise: RMIN and RMAX are set to the range the caller adds it from.
+     *
+     * @param playerID Current Player's Game ID
+     * @param alpha    Lower bound of the search window
+     * @param beta     Upper bound of the search window
+     * @return Relative Game Board Value
+     */
+    private int evaluateHeuristic(int playerID, int alpha, int beta) {
+        // (Medium only counts pieces, a lookup would cost as much)
+        boolean cached = evaluationCache != null && difficulty >= Constants.difficulty_Intermediate;
+        long key = hashKey ^ Zobrist.sideToMove(playerID);
+        if (cached) {
+            evaluationCacheProbes++;
+            if (evaluationCache.probe(key)) {
+                evaluationCacheHits++;
+                RMIN = evaluationCache.randomMin;
+                RMAX = evaluationCache.randomMax;
+                return evaluationCache.value;
             }
         }
-        return bestValue;
+        if (lazyEvaluation && difficulty > Constants.difficulty_Intermediate) {
+            int bound = lazyBound(alpha, beta);
+            if (bound != NO_LAZY_BOUND) {
+                // (A bound is not the position's value, it is not cached)
+                return bound;
+            }
+        }
+        int value = evaluatePosition(playerID);
+        if (cached) {
+            evaluationCache.store(key, value, RMIN, RMAX);
+        }
+        return value;
+    }
+
+    /**
+     * Material and stage of the Hard heuristic, without its other terms (see FusedEvaluator.bound).
+     * Sets RMIN and RMAX to the stage's noise range.
+     *
+     * @param alpha Lower bound of the search window
+     * @param beta  Upper bound of the search window
+     * @return A bound of the score that stays outside (alpha, beta) whatever noise is added,
+     * or NO_LAZY_BOUND if the whole heuristic is needed
+     */
+    private int lazyBound(int alpha, int beta) {
+        BitBoard leaf = position;
+        if (!bitBoardSearch) {
+            leafPosition.setFromPieces(gameBoard);
+            leaf = leafPosition;
+        }
+        lazyPieceCount[0] = Integer.bitCount(leaf.red & ~leaf.kings);
+        lazyPieceCount[1] = Integer.bitCount(leaf.red & leaf.kings);
+        lazyPieceCount[2] = Integer.bitCount(leaf.black & ~leaf.kings);
+        lazyPieceCount[3] = Integer.bitCount(leaf.black & leaf.kings);
+        int currentStage = stageOf(lazyPieceCount);
+        fusedEvaluator.bound(leaf, currentStage);
+        RMAX = fusedEvaluator.randomRange(currentStage);
+        RMIN = -RMAX;
+        if (fusedEvaluator.upperBound + RMAX <= alpha) {
+            lazyEvaluations++;
+            return fusedEvaluator.upperBound;
+        } else if (fusedEvaluator.lowerBound + RMIN >= beta) {
+            lazyEvaluations++;
+            return fusedEvaluator.lowerBound;
+        }
+        return NO_LAZY_BOUND;
+    }
+
+    private int evaluatePosition(int playerID) {
+        if (fusedEvaluation && difficulty > Constants.difficulty_Intermediate) {
+            return evaluateFused(playerID);
+        } else if (bitBoardSearch && incrementalEvaluation) {
+            return evaluateIncremental(playerID);
+        } else if (bitBoardSearch) {
+            // Write the leaf onto evaluationBoard so that every difficulty keeps the same heuristic
+            position.toPieces(evaluationBoard);
+            return evaluateHeuristic(evaluationBoard, playerID);
+        }
+        return evaluateHeuristic(gameBoard, playerID);
     }
 
     /**
@@ -142,212 +1728,324 @@ public class AI_Heuristic {
 
             return simpleScore(board, playerID) * PAWN_PIECE / 3
                     + simpleDistanceScore(board, playerID)
-                    + advancedDistanceScore(board, playerID, 2) * ADVANCED_DISTANCE_VALUE
+                    + advancedDistanceScore(board, playerID) * ADVANCED_DISTANCE_VALUE
                     + isRed * (tPS[0] - tPS[2]) * PAWN_PIECE_ROW_VALUE
                     + isRed * (tPS[1] - tPS[3]) * KING_PIECE_ROW_VALUE
                     + protectedPieceScore(board, playerID) * PROTECTED_PIECE_VALUE
                     + possibleJumpsScore(board, playerID) * POSSIBLE_JUMP_VALUE;
         } else  /*(difficulty > Constants.difficulty_Intermediate)*/ {
-            /**
-             * C1-C8 Focus on the difference between player pieces
-             * C9-C10 Focus on the current player's value
-             */
-            int C1 = 0,// Difference Value of Pawn Pieces
-                    C2 = 0, // Difference Value of KING Pieces
-                    C3 = 0, // Value of Protected Pawn Pieces
-                    C4 = 0, // Value of Protected Kings
-                    C5 = 0, // Value of movable Pawn Pieces
-                    C6 = 0, // Value of movable Kings
-                    C7 = 0, // Average Pawn Piece distance to promotion
-                    C8 = 0, // Value of opened Promotion Row
-                    C9 = 0,  // Piece Value
-                    C10 = 0,// King Value
-                    C11 = 0,// Mean Distance to Other Pieces
-                    C12 = 0,// Difference of pawns 'hiding' on the edge of the board
-                    C13 = 0,// Difference of Kings 'hiding' on the edge of the board
-                    C14 = -PAWN_PIECE,// Pawn 'hiding' on the edge of the board,
-                    C15 = -KING; // King 'hiding' on the edge of the board
-
             int[] pieceCount = pieceCount(board);
-            int currentStage;
-            int beginningPhaseKingCount = 0,
-                    beginningPhasePawnCount = 3,
-                    middlePhasePawnCount = 3;
-            int middlePhaseKingCount = 1;
+            int currentStage = stageOf(pieceCount);
+            boolean beginning = currentStage == stage[0];
+            return hardScore(playerID, currentStage, pieceCount,
+                    protectedPiecesScore(board),
+                    movablePieceScore(board),
+                    promotionRowScore(board),
+                    meanDistanceToPromotionScore(board),
+                    beginning ? null : meanDistanceScore(board),
+                    beginning ? null : trappedPieceScore(board));
+        }
+    }
+
+    /**
+     * Same heuristic as evaluateHeuristic(Piece[][], int), without scanning a board:
+     * material and the men's distances come from evaluationState, the other terms from the masks.
+     *
+     * @param playerID Current Player's Game ID
+     * @return Relative Game Board Value
+     */
+    private int evaluateIncremental(int playerID) {
+        int[] pieceCount = evaluationState.pieceCount;
+        if (difficulty == Constants.difficulty_Medium) {
+            RMIN = Constants.RMIN;
+            RMAX = Constants.RMAX;
+            return simpleScore(pieceCount, playerID);
+        } else if (difficulty == Constants.difficulty_Intermediate) {
+            RMIN = Constants.RMIN;
+            RMAX = Constants.RMAX;
+            EvaluationState.trappedPieceScore(position, trappedPieceCount);
+            int isRed = RED == playerID ? 1 : -1;
+
+            return simpleScore(pieceCount, playerID) * PAWN_PIECE / 3
+                    + evaluationState.simpleDistanceScore(playerID)
+                    + EvaluationState.advancedDistanceScore(position, playerID) * ADVANCED_DISTANCE_VALUE
+                    + isRed * (trappedPieceCount[0] - trappedPieceCount[2]) * PAWN_PIECE_ROW_VALUE
+                    + isRed * (trappedPieceCount[1] - trappedPieceCount[3]) * KING_PIECE_ROW_VALUE
+                    + EvaluationState.protectedPieceScore(menStructure(position), playerID) * PROTECTED_PIECE_VALUE
+                    + EvaluationState.possibleJumpsScore(position, playerID) * POSSIBLE_JUMP_VALUE;
+        }
+
+        int currentStage = stageOf(pieceCount);
+        boolean beginning = currentStage == stage[0];
+        EvaluationState.protectedPiecesScore(position, menStructure(position), protectedPieceCount);
+        EvaluationState.movablePieceScore(position, movablePieceCount);
+        EvaluationState.promotionRowScore(position, promotionRowCount);
+        evaluationState.meanDistanceToPromotionScore(meanDistanceToPromotionCount);
+        if (!beginning) {
+            EvaluationState.meanDistanceScore(position, meanDistanceCount);
+            EvaluationState.trappedPieceScore(position, trappedPieceCount);
+        }
+        return hardScore(playerID, currentStage, pieceCount, protectedPieceCount, movablePieceCount,
+                promotionRowCount, meanDistanceToPromotionCount,
+                beginning ? null : meanDistanceCount, beginning ? null : trappedPieceCount);
+    }
+
+    /**
+     * Hard heuristic computed by FusedEvaluator (same scores as evaluateHeuristic(Piece[][], int))
+     *
+     * @param playerID Current Player's Game ID
+     * @return Relative Game Board Value
+     */
+    private int evaluateFused(int playerID) {
+        BitBoard leaf = position;
+        if (!bitBoardSearch) {
+            leafPosition.setFromPieces(gameBoard);
+            leaf = leafPosition;
+        }
+        return fusedScore(leaf, playerID);
+    }
+
+    /**
+     * @param leaf     Position to evaluate
+     * @param playerID Current Player's Game ID
+     * @return Relative value of the position, computed by FusedEvaluator
+     */
+    int fusedScore(BitBoard leaf, int playerID) {
+        fusedEvaluator.collect(leaf, menStructure(leaf));
+        int currentStage = stageOf(fusedEvaluator.features);
+        RMAX = fusedEvaluator.randomRange(currentStage);
+        RMIN = -RMAX;
+        return fusedEvaluator.score(playerID, currentStage);
+    }
+
+    /**
+     * The other evaluators are checked against this one (see FusedEvaluatorCheck)
+     *
+     * @param leaf     Position to evaluate
+     * @param playerID Current Player's Game ID
+     * @return Relative value of the position, computed by scanning its board (evaluateHeuristic(Piece[][], int))
+     */
+    int boardScanScore(BitBoard leaf, int playerID) {
+        leaf.toPieces(evaluationBoard);
+        return evaluateHeuristic(evaluationBoard, playerID);
+    }
+
+    /**
+     * @param leaf Position being evaluated
+     * @return The position's men structure (see MenStructureCache), looked up in the men structure cache first
+     */
+    private int[] menStructure(BitBoard leaf) {
+        if (menStructureCache == null) {
+            EvaluationState.menStructureScore(leaf, menStructure);
+            return menStructure;
+        }
+        menStructureCacheProbes++;
+        if (menStructureCache.probe(leaf, menStructure)) {
+            menStructureCacheHits++;
+        }
+        return menStructure;
+    }
+
+    /**
+     * @param pieceCount Number of each piece type (see pieceCount)
+     * @return Game stage: stage[0], stage[1] or stage[2]
+     */
+    private int stageOf(int[] pieceCount) {
+        int beginningPhaseKingCount = 0,
+                beginningPhasePawnCount = 3,
+                middlePhasePawnCount = 3;
+        int middlePhaseKingCount = 1;
 
         /*
           Stage 1: Beginning - Each player has more than 3 pawns & No kings
           Stage 2: Kings - Each player has more than 3 pieces there is at least 1 king
           Stage 3: Ending - One player has at least 3 pieces left
          */
-            if (pieceCount[0] > beginningPhasePawnCount
-                    && pieceCount[2] > beginningPhasePawnCount
-                    && Math.abs(pieceCount[1] + pieceCount[3]) == beginningPhaseKingCount) {
-
-                // Stage 1
-                currentStage = stage[0];
-                RMIN = -PAWN_PIECE * 1 / 10;
-                RMAX = PAWN_PIECE * 1 / 10;
-                C1 = PAWN_PIECE * 2 / 7; // Value of difference of Pawn Pieces
-                C2 = KING * 2 / 7; // Value of difference of King Pieces
-                C3 = PAWN_PIECE * 3 / 4; // Value of difference of Protected Pawns
-                C4 = KING * 3 / 4; // Value of difference of Protected Kings
-                C5 = PAWN_PIECE * 10 / 13; // Value of difference of movable Pawn Pieces
-                C6 = KING * 10 / 13; // Value of difference of movable Kings
-                C7 = PAWN_PIECE * 3 / 11; // Value of difference of Average Pawn Piece distance to promotion
-                C8 = -PAWN_PIECE * 2 / 19; // Value of difference of opened Promotion Row
-                C9 = PAWN_PIECE;  // Piece Value
-                C10 = KING; // King Value
-
-            } else if ((pieceCount[0] + pieceCount[1]) > middlePhasePawnCount
-                    && (pieceCount[2] + pieceCount[3]) > middlePhasePawnCount
-                    && Math.abs(pieceCount[1] + pieceCount[3]) >= middlePhaseKingCount) {
-
-                // Stage 2
-                currentStage = stage[1];
-                RMIN = -PAWN_PIECE * 2 / 10;
-                RMAX = PAWN_PIECE * 2 / 10;
-                C1 = PAWN_PIECE * 2 / 5; // Value of difference of Pawn Pieces
-                C2 = KING * 2 / 5; // Value of difference of King Pieces
-                C3 = PAWN_PIECE * 5 / 8; // Value of difference of Protected Pawns
-                C4 = KING * 3 / 8; // Value of difference of Protected Kings
-                C5 = 0; // Value of difference of movable Pawn Pieces
-                C6 = KING * 2 / 5; // Value of difference of movable Kings
-                C7 = PAWN_PIECE * 5 / 7; // Value of difference of Average Pawn Piece distance to promotion
-                C8 = PAWN_PIECE * 3 / 7; // Value of difference of opened Promotion Row
-                C9 = PAWN_PIECE;  // Piece Value
-                C10 = KING; // King Value
-                C11 = -KING / 2; // Mean Distance to Other Pieces
-                C12 = PAWN_PIECE / 2; // Difference of pawns 'hiding' on the edge of the board
-                C13 = -KING / 2; // Difference of Kings 'hiding' on the edge of the board
-                C14 = -PAWN_PIECE; // Pawn 'hiding' on the edge of the board,
+        if (pieceCount[0] > beginningPhasePawnCount
+                && pieceCount[2] > beginningPhasePawnCount
+                && Math.abs(pieceCount[1] + pieceCount[3]) == beginningPhaseKingCount) {
+            return stage[0];
+        } else if ((pieceCount[0] + pieceCount[1]) > middlePhasePawnCount
+                && (pieceCount[2] + pieceCount[3]) > middlePhasePawnCount
+                && Math.abs(pieceCount[1] + pieceCount[3]) >= middlePhaseKingCount) {
+            return stage[1];
+        }
+        return stage[2];
+    }
+
+    /**
+     * Hard difficulty heuristic, from the counts of each term
+     * (board scans in evaluateHeuristic, or masks in evaluateIncremental).
+     *
+     * @param playerID     Current Player's Game ID
+     * @param currentStage Game stage (see stageOf)
+     * @return Relative Game Board Value
+     */
+    private int hardScore(int playerID, int currentStage, int[] pieceCount, int[] protectedPieceCount,
+                          int[] movablePieceCount, int[] promotionRowCount, int[] meanDistanceToPromotionCount,
+                          int[] meanDistanceCount, int[] trappedPieceCount) {
+        /**
+         * C1-C8 Focus on the difference between player pieces
+         * C9-C10 Focus on the current player's value
+         */
+        int C1 = 0,// Difference Value of Pawn Pieces
+                C2 = 0, // Difference Value of KING Pieces
+                C3 = 0, // Value of Protected Pawn Pieces
+                C4 = 0, // Value of Protected Kings
+                C5 = 0, // Value of movable Pawn Pieces
+                C6 = 0, // Value of movable Kings
+                C7 = 0, // Average Pawn Piece distance to promotion
+                C8 = 0, // Value of opened Promotion Row
+                C9 = 0,  // Piece Value
+                C10 = 0,// King Value
+                C11 = 0,// Mean Distance to Other Pieces
+                C12 = 0,// Difference of pawns 'hiding' on the edge of the board
+                C13 = 0,// Difference of Kings 'hiding' on the edge of the board
+                C14 = -PAWN_PIECE,// Pawn 'hiding' on the edge of the board,
                 C15 = -KING; // King 'hiding' on the edge of the board
 
-            } else {
-                // Stage 3
-                currentStage = stage[2];
-                RMIN = -PAWN_PIECE * 3 / 10;
-                RMAX = PAWN_PIECE * 3 / 10;
-                C1 = PAWN_PIECE * 2 / 31; // Value of difference of Pawn Pieces
-                C2 = KING * 2 / 33; // Value of difference of King Pieces
-                C3 = PAWN_PIECE * 1 / 4; // Value of difference of Protected Pawns
-                C4 = KING * 1 / 4; // Value of difference of Protected Kings
-                C5 = PAWN_PIECE * 2 / 19; // Value of difference of movable Pawn Pieces
-                C6 = KING / 3; // Value of difference of movable Kings
-                C7 = PAWN_PIECE / 3; // Value of difference of Average Pawn Piece distance to promotion
-                C8 = 0; // Value of difference of opened Promotion Row
-                C9 = PAWN_PIECE;  // Piece Value
-                C10 = KING;// King Value
-            }
+        if (currentStage == stage[0]) {
+            // Stage 1
+            RMIN = -PAWN_PIECE * 1 / 10;
+            RMAX = PAWN_PIECE * 1 / 10;
+            C1 = PAWN_PIECE * 2 / 7; // Value of difference of Pawn Pieces
+            C2 = KING * 2 / 7; // Value of difference of King Pieces
+            C3 = PAWN_PIECE * 3 / 4; // Value of difference of Protected Pawns
+            C4 = KING * 3 / 4; // Value of difference of Protected Kings
+            C5 = PAWN_PIECE * 10 / 13; // Value of difference of movable Pawn Pieces
+            C6 = KING * 10 / 13; // Value of difference of movable Kings
+            C7 = PAWN_PIECE * 3 / 11; // Value of difference of Average Pawn Piece distance to promotion
+            C8 = -PAWN_PIECE * 2 / 19; // Value of difference of opened Promotion Row
+            C9 = PAWN_PIECE;  // Piece Value
+            C10 = KING; // King Value
+
+        } else if (currentStage == stage[1]) {
+            // Stage 2
+            RMIN = -PAWN_PIECE * 2 / 10;
+            RMAX = PAWN_PIECE * 2 / 10;
+            C1 = PAWN_PIECE * 2 / 5; // Value of difference of Pawn Pieces
+            C2 = KING * 2 / 5; // Value of difference of King Pieces
+            C3 = PAWN_PIECE * 5 / 8; // Value of difference of Protected Pawns
+            C4 = KING * 3 / 8; // Value of difference of Protected Kings
+            C5 = 0; // Value of difference of movable Pawn Pieces
+            C6 = KING * 2 / 5; // Value of difference of movable Kings
+            C7 = PAWN_PIECE * 5 / 7; // Value of difference of Average Pawn Piece distance to promotion
+            C8 = PAWN_PIECE * 3 / 7; // Value of difference of opened Promotion Row
+            C9 = PAWN_PIECE;  // Piece Value
+            C10 = KING; // King Value
+            C11 = -KING / 2; // Mean Distance to Other Pieces
+            C12 = PAWN_PIECE / 2; // Difference of pawns 'hiding' on the edge of the board
+            C13 = -KING / 2; // Difference of Kings 'hiding' on the edge of the board
+            C14 = -PAWN_PIECE; // Pawn 'hiding' on the edge of the board,
+            C15 = -KING; // King 'hiding' on the edge of the board
+
+        } else {
+            // Stage 3
+            RMIN = -PAWN_PIECE * 3 / 10;
+            RMAX = PAWN_PIECE * 3 / 10;
+            C1 = PAWN_PIECE * 2 / 31; // Value of difference of Pawn Pieces
+            C2 = KING * 2 / 33; // Value of difference of King Pieces
+            C3 = PAWN_PIECE * 1 / 4; // Value of difference of Protected Pawns
+            C4 = KING * 1 / 4; // Value of difference of Protected Kings
+            C5 = PAWN_PIECE * 2 / 19; // Value of difference of movable Pawn Pieces
+            C6 = KING / 3; // Value of difference of movable Kings
+            C7 = PAWN_PIECE / 3; // Value of difference of Average Pawn Piece distance to promotion
+            C8 = 0; // Value of difference of opened Promotion Row
+            C9 = PAWN_PIECE;  // Piece Value
+            C10 = KING;// King Value
+        }
 
-            // STAGES
-            if (currentStage == stage[0]) {
-                int[] protectedPieceCount = protectedPiecesScore(board);
-                int[] movablePieceCount = movablePieceScore(board);
-                int[] promotionRowCount = promotionRowScore(board);
-                int[] meanDistanceToPromotionCount = meanDistanceToPromotionScore(board);
-                int isRed = playerID == RED ? 1 : -1;
-                return isRed * ( // If player is black, multiplying by -1 will reverse each subtraction
-                        C1 * (pieceCount[0] - pieceCount[2]) // Difference in Pawn Pieces
-                                + C2 * (pieceCount[1] - pieceCount[3])// Difference in King Pieces
-                                + C3 * (protectedPieceCount[0] - protectedPieceCount[2]) // Difference in Protected Pawn Pieces
-                                + C4 * (protectedPieceCount[1] - protectedPieceCount[3]) // Difference in Protected King Pieces
-                                + C5 * (movablePieceCount[0] - movablePieceCount[2]) // Difference in movable Pawn Pieces
-                                + C6 * (movablePieceCount[1] - movablePieceCount[3]) // Difference in movable Pawn Pieces
-                                + C7 * (meanDistanceToPromotionCount[0] - meanDistanceToPromotionCount[1]) // Difference in 'closeness' to promotional row
-                                + C8 * (promotionRowCount[0] - promotionRowCount[1]) // Difference in Respective Open Promotional Row Tiles
-                )
-                        // if player is Red count Red pieces, otherwise count Black
-                        + isRed == 1 ?
-                        (
-                                C9 * pieceCount[0]
-                                        + C10 * pieceCount[1]
-                        )
-                        :
-                        (
-                                C9 * pieceCount[2]
-                                        + C10 * pieceCount[3]
-                        );
-            } else if (currentStage == stage[1]) {
-
-                int[] protectedPieceCount = protectedPiecesScore(board);
-                int[] movablePieceCount = movablePieceScore(board);
-                int[] promotionRowCount = promotionRowScore(board);
-                int[] meanDistanceToPromotionCount = meanDistanceToPromotionScore(board);
-                int[] meanDistanceCount = meanDistanceScore(board, 2);
-                int[] trappedPieceCount = trappedPieceScore(board);
-                int isRed = playerID == RED ? 1 : -1;
-                return isRed * ( // If player is black, multiplying by -1 will reverse each subtraction
-                        C1 * (pieceCount[0] - pieceCount[2]) // Difference in Pawn Pieces
-                                + C2 * (pieceCount[1] - pieceCount[3])// Difference in King Pieces
-                                + C3 * (protectedPieceCount[0] - protectedPieceCount[2]) // Difference in Protected Pawn Pieces
-                                + C4 * (protectedPieceCount[1] - protectedPieceCount[3]) // Difference in Protected King Pieces
-                                + C5 * (movablePieceCount[0] - movablePieceCount[2]) // Difference in movable Pawn Pieces
-                                + C6 * (movablePieceCount[1] - movablePieceCount[3]) // Difference in movable Pawn Pieces
-                                + C7 * (meanDistanceToPromotionCount[0] - meanDistanceToPromotionCount[1]) // Difference in 'closeness' to promotional row
-                                + C8 * (promotionRowCount[0] - promotionRowCount[1]) // Difference in Respective Open Promotional Row Tiles
+        // STAGES
+        if (currentStage == stage[0]) {
+            int isRed = playerID == RED ? 1 : -1;
+            return isRed * ( // If player is black, multiplying by -1 will reverse each subtraction
+                    C1 * (pieceCount[0] - pieceCount[2]) // Difference in Pawn Pieces
+                            + C2 * (pieceCount[1] - pieceCount[3])// Difference in King Pieces
+                            + C3 * (protectedPieceCount[0] - protectedPieceCount[2]) // Difference in Protected Pawn Pieces
+                            + C4 * (protectedPieceCount[1] - protectedPieceCount[3]) // Difference in Protected King Pieces
+                            + C5 * (movablePieceCount[0] - movablePieceCount[2]) // Difference in movable Pawn Pieces
+                            + C6 * (movablePieceCount[1] - movablePieceCount[3]) // Difference in movable Pawn Pieces
+                            + C7 * (meanDistanceToPromotionCount[0] - meanDistanceToPromotionCount[1]) // Difference in 'closeness' to promotional row
+                            + C8 * (promotionRowCount[0] - promotionRowCount[1]) // Difference in Respective Open Promotional Row Tiles
+            )
+                    // if player is Red count Red pieces, otherwise count Black
+                    + isRed == 1 ?
+                    (
+                            C9 * pieceCount[0]
+                                    + C10 * pieceCount[1]
+                    )
+                    :
+                    (
+                            C9 * pieceCount[2]
+                                    + C10 * pieceCount[3]
+                    );
+        } else if (currentStage == stage[1]) {
+
+            int isRed = playerID == RED ? 1 : -1;
+            return isRed * ( // If player is black, multiplying by -1 will reverse each subtraction
+                    C1 * (pieceCount[0] - pieceCount[2]) // Difference in Pawn Pieces
+                            + C2 * (pieceCount[1] - pieceCount[3])// Difference in King Pieces
+                            + C3 * (protectedPieceCount[0] - protectedPieceCount[2]) // Difference in Protected Pawn Pieces
+                            + C4 * (protectedPieceCount[1] - protectedPieceCount[3]) // Difference in Protected King Pieces
+                            + C5 * (movablePieceCount[0] - movablePieceCount[2]) // Difference in movable Pawn Pieces
+                            + C6 * (movablePieceCount[1] - movablePieceCount[3]) // Difference in movable Pawn Pieces
+                            + C7 * (meanDistanceToPromotionCount[0] - meanDistanceToPromotionCount[1]) // Difference in 'closeness' to promotional row
+                            + C8 * (promotionRowCount[0] - promotionRowCount[1]) // Difference in Respective Open Promotional Row Tiles
 //                            + C11 * (meanDistanceCount[0] - meanDistanceCount[1])
-                                + C12 * (trappedPieceCount[0] - trappedPieceCount[2])// Difference in Edge Pawns
-                                + C13 * (trappedPieceCount[1] - trappedPieceCount[3]) // Difference in Edge Kings
-                )
-                        // if player is Red count Red pieces, otherwise count Black
-                        + isRed == 1 ?
-                        (
-                                C9 * pieceCount[0]
-                                        + C10 * pieceCount[1]
-                                        + C11 * meanDistanceCount[0]
-                                        + C14 * trappedPieceCount[0]
-                                        + C15 * trappedPieceCount[1]
-                        )
-                        :
-                        (
-                                C9 * pieceCount[2]
-                                        + C10 * pieceCount[3]
-                                        + C11 * meanDistanceCount[1]
-                                        + C14 * trappedPieceCount[2]
-                                        + C15 * trappedPieceCount[3]
-                        );
+                            + C12 * (trappedPieceCount[0] - trappedPieceCount[2])// Difference in Edge Pawns
+                            + C13 * (trappedPieceCount[1] - trappedPieceCount[3]) // Difference in Edge Kings
+            )
+                    // if player is Red count Red pieces, otherwise count Black
+                    + isRed == 1 ?
+                    (
+                            C9 * pieceCount[0]
+                                    + C10 * pieceCount[1]
+                                    + C11 * meanDistanceCount[0]
+                                    + C14 * trappedPieceCount[0]
+                                    + C15 * trappedPieceCount[1]
+                    )
+                    :
+                    (
+                            C9 * pieceCount[2]
+                                    + C10 * pieceCount[3]
+                                    + C11 * meanDistanceCount[1]
+                                    + C14 * trappedPieceCount[2]
+                                    + C15 * trappedPieceCount[3]
+                    );
 
-            } else {
+        } else {
 
-                int[] protectedPieceCount = protectedPiecesScore(board);
-                int[] movablePieceCount = movablePieceScore(board);
-                int[] promotionRowCount = promotionRowScore(board);
-                int[] meanDistanceToPromotionCount = meanDistanceToPromotionScore(board);
-                int[] meanDistanceCount = meanDistanceScore(board, 2);
-                int[] trappedPieceCount = trappedPieceScore(board);
-                int isRed = playerID == RED ? 1 : -1;
-                return isRed * ( // If player is black, multiplying by -1 will reverse each subtraction
-                        C1 * (pieceCount[0] - pieceCount[2]) // Difference in Pawn Pieces
-                                + C2 * (pieceCount[1] - pieceCount[3])// Difference in King Pieces
-                                + C3 * (protectedPieceCount[0] - protectedPieceCount[2]) // Difference in Protected Pawn Pieces
-                                + C4 * (protectedPieceCount[1] - protectedPieceCount[3]) // Difference in Protected King Pieces
-                                + C5 * (movablePieceCount[0] - movablePieceCount[2]) // Difference in movable Pawn Pieces
-                                + C6 * (movablePieceCount[1] - movablePieceCount[3]) // Difference in movable Pawn Pieces
-                                + C7 * (meanDistanceToPromotionCount[0] - meanDistanceToPromotionCount[1]) // Difference in 'closeness' to promotional row
-                                + C8 * (promotionRowCount[0] - promotionRowCount[1]) // Difference in Respective Open Promotional Row Tiles
+            int isRed = playerID == RED ? 1 : -1;
+            return isRed * ( // If player is black, multiplying by -1 will reverse each subtraction
+                    C1 * (pieceCount[0] - pieceCount[2]) // Difference in Pawn Pieces
+                            + C2 * (pieceCount[1] - pieceCount[3])// Difference in King Pieces
+                            + C3 * (protectedPieceCount[0] - protectedPieceCount[2]) // Difference in Protected Pawn Pieces
+                            + C4 * (protectedPieceCount[1] - protectedPieceCount[3]) // Difference in Protected King Pieces
+                            + C5 * (movablePieceCount[0] - movablePieceCount[2]) // Difference in movable Pawn Pieces
+                            + C6 * (movablePieceCount[1] - movablePieceCount[3]) // Difference in movable Pawn Pieces
+                            + C7 * (meanDistanceToPromotionCount[0] - meanDistanceToPromotionCount[1]) // Difference in 'closeness' to promotional row
+                            + C8 * (promotionRowCount[0] - promotionRowCount[1]) // Difference in Respective Open Promotional Row Tiles
 //                            + C11 * (meanDistanceCount[0] - meanDistanceCount[1])
-                                + C12 * (trappedPieceCount[0] - trappedPieceCount[2])// Difference in Edge Pawns
-                                + C13 * (trappedPieceCount[1] - trappedPieceCount[3]) // Difference in Edge Kings
-                )
-                        // if player is Red count Red pieces, otherwise count Black
-                        + isRed == 1 ?
-                        (
-                                C9 * pieceCount[0]
-                                        + C10 * pieceCount[1]
-                                        + C11 * meanDistanceCount[0]
-                                        + C14 * trappedPieceCount[0]
-                                        + C15 * trappedPieceCount[1]
-                        )
-                        :
-                        (
-                                C9 * pieceCount[2]
-                                        + C10 * pieceCount[3]
-                                        + C11 * meanDistanceCount[1]
-                                        + C14 * trappedPieceCount[2]
-                                        + C15 * trappedPieceCount[3]
-                        );
-            }
+                            + C12 * (trappedPieceCount[0] - trappedPieceCount[2])// Difference in Edge Pawns
+                            + C13 * (trappedPieceCount[1] - trappedPieceCount[3]) // Difference in Edge Kings
+            )
+                    // if player is Red count Red pieces, otherwise count Black
+                    + isRed == 1 ?
+                    (
+                            C9 * pieceCount[0]
+                                    + C10 * pieceCount[1]
+                                    + C11 * meanDistanceCount[0]
+                                    + C14 * trappedPieceCount[0]
+                                    + C15 * trappedPieceCount[1]
+                    )
+                    :
+                    (
+                            C9 * pieceCount[2]
+                                    + C10 * pieceCount[3]
+                                    + C11 * meanDistanceCount[1]
+                                    + C14 * trappedPieceCount[2]
+                                    + C15 * trappedPieceCount[3]
+                    );
         }
     }
 
@@ -590,99 +2288,15 @@ public class AI_Heuristic {
     }
 
     /**
+     * Distances come from BoardGeometry's tables (see EvaluationState.meanDistanceScore)
+     *
      * @param board Current Board State
      * @return The measured and averaged distance between kings and other pieces
      */
-    private int[] meanDistanceScore(Piece[][] board, int norm) {
-        int[] pieces = {0, 0}; // RED_KING, BLACK_KING
-
-        Vector<String> redKingsCoord = new Vector<>(),
-                blackKingsCoord = new Vector<>(),
-                redPieceCoord = new Vector<>(),
-                blackPieceCoord = new Vector<>();
-        Vector<Integer> redNorm = new Vector<>(),
-                blackNorm = new Vector<>();
-
-        // Find Piece locations
-        for (int row = 0; row < numRowsAndColumns; row++) {
-            for (int col = 0; col < numRowsAndColumns; col++) {
-
-                if (board[row][col].getPieceType() == RED) {
-                    redPieceCoord.add("" + row + "," + col);
-
-                    if (board[row][col].isKing()) {
-                        redKingsCoord.add("" + row + "," + col);
-                    }
-                }
-
-                if (board[row][col].getPieceType() == BLACK) {
-                    blackPieceCoord.add("" + row + "," + col);
-
-                    if (board[row][col].isKing()) {
-                        blackKingsCoord.add("" + row + "," + col);
-                    }
-                }
-            }
-        }
-        for (String king : redKingsCoord) {
-            int sum = 0;
-
-            String[] s = king.split(",");
-            int row = 0, col = 0;
-            for (int i = 0; i < s.length; i += 2) {
-                row = Integer.parseInt(s[i + 1]);
-                col = Integer.parseInt((s[i]));
-            }
-            for (String pawn : blackPieceCoord) {
-                String[] sN = pawn.split(",");
-                for (int i = 0; i < sN.length; i += 2) {
-                    int rowN = Integer.parseInt(sN[i + 1]);
-                    int colN = Integer.parseInt((sN[i]));
-                    sum += Math.pow(row - rowN, norm);
-                    sum += Math.pow(col - colN, norm);
-                }
-                redNorm.add((int) ((double) Math.pow((double) sum, (double) 1 / norm)));
-            }
-        }
-
-
-        for (String king : blackKingsCoord) {
-            int sum = 0;
-
-            String[] s = king.split(",");
-            int row = 0, col = 0;
-            for (int i = 0; i < s.length; i += 2) {
-                row = Integer.parseInt(s[i + 1]);
-                col = Integer.parseInt((s[i]));
-            }
-            for (String pawn : redPieceCoord) {
-                String[] sN = pawn.split(",");
-                for (int i = 0; i < sN.length; i += 2) {
-                    int rowN = Integer.parseInt(sN[i + 1]);
-                    int colN = Integer.parseInt((sN[i]));
-                    sum += Math.pow(row - rowN, norm);
-                    sum += Math.pow(col - colN, norm);
-                }
-                blackNorm.add((int) ((double) Math.pow((double) sum, (double) 1 / norm)));
-            }
-        }
-
-        // Get average distance
-        if (redNorm.size() != 0) {
-            for (Integer integer : redNorm) {
-                pieces[0] += integer;
-            }
-            pieces[0] /= redNorm.size();
-        }
-        // Get average distance
-        if (blackNorm.size() != 0) {
-            for (Integer integer : blackNorm) {
-                pieces[1] += integer;
-            }
-            pieces[1] /= blackNorm.size();
-        }
-
-        return pieces;
+    private int[] meanDistanceScore(Piece[][] board) {
+        leafPosition.setFromPieces(board);
+        EvaluationState.meanDistanceScore(leafPosition, meanDistanceCount);
+        return meanDistanceCount;
     }
 
     /**
@@ -748,9 +2362,17 @@ public class AI_Heuristic {
      * @return The difference is piece values
      */
     private int simpleScore(Piece[][] board, int player) {
+        return simpleScore(pieceCount(board), player);
+    }
+
+    /**
+     * @param pC     Number of each piece type (see pieceCount)
+     * @param player Current player ID
+     * @return The difference is piece values
+     */
+    private int simpleScore(int[] pC, int player) {
         int NORMAL_PIECE = 100,
                 KING_PIECE = 175;
-        int[] pC = pieceCount(board);
         int black = pC[2] * NORMAL_PIECE + pC[3] * KING_PIECE,
                 red = pC[0] * NORMAL_PIECE + pC[1] * KING_PIECE;
         return player == RED ? red - black : black - red;
@@ -926,17 +2548,30 @@ public class AI_Heuristic {
     }
 
     /**
-     * @param localBoard Update gameBoard with a new board
+     * @param localBoard Update gameBoard with a new board (copied into gameBoard, nothing is allocated)
      */
     void updateGameBoard(Piece[][] localBoard) {
-        this.gameBoard = deepCopy(localBoard);
+        copyBoard(localBoard, gameBoard);
+    }
+
+    /**
+     * @param from Board to copy
+     * @param to   Board (of the same size) overwritten with it
+     */
+    private void copyBoard(Piece[][] from, Piece[][] to) {
+        for (int row = 0; row < numRowsAndColumns; row++) {
+            for (int col = 0; col < numRowsAndColumns; col++) {
+                to[row][col].setPieceType(from[row][col].getPieceType());
+                to[row][col].setKing(from[row][col].isKing());
+            }
+        }
     }
 
     /**
      * While deepCopy creates a full clone of the board,
      * it is actually an inefficient technique.
-     * A better method would be to make a move and then
-     * unmake said move.
+     * It is only used when the board is handed over,
+     * the search itself makes and unmakes moves.
      *
      * @param localBoard The board that will be copied
      * @return A deep copyied version of the localBoard
@@ -966,132 +2601,145 @@ public class AI_Heuristic {
      * @param player Current player ID
      * @return The difference between how close pieces are to the back of the board.
      */
-    private int advancedDistanceScore(Piece[][] board, int player, int norm) {
-        double black = 0, red = 0;
-
-        Vector<String> redKingsCoord = new Vector<>(),
-                blackKingsCoord = new Vector<>(),
-                redNormalCoord = new Vector<>(),
-                blackNormalCoord = new Vector<>();
-        Vector<Double> redNorm = new Vector<>(),
-                blackNorm = new Vector<>();
-
-        // Find Piece locations
-        for (int row = 0; row < numRowsAndColumns; row++) {
-            for (int col = 0; col < numRowsAndColumns; col++) {
-                if (board[row][col].getPieceType() == RED && board[row][col].isKing()) {
-                    redKingsCoord.add("" + row + "," + col);
-                } else if (board[row][col].getPieceType() == BLACK && board[row][col].isKing()) {
-                    blackKingsCoord.add("" + row + "," + col);
-                } else if (board[row][col].getPieceType() == RED && !board[row][col].isKing()) {
-                    redNormalCoord.add("" + row + "," + col);
-                } else if (board[row][col].getPieceType() == BLACK && !board[row][col].isKing()) {
-                    blackNormalCoord.add("" + row + "," + col);
-                }
-            }
-        }
-        for (String king : redKingsCoord) {
-            int sum = 0;
-
-            String[] s = king.split(",");
-            int row = 0, col = 0;
-            for (int i = 0; i < s.length; i += 2) {
-                row = Integer.parseInt(s[i + 1]);
-                col = Integer.parseInt((s[i]));
-            }
-            for (String normal : blackNormalCoord) {
-                String[] sN = normal.split(",");
-                for (int i = 0; i < sN.length; i += 2) {
-                    int rowN = Integer.parseInt(sN[i + 1]);
-                    int colN = Integer.parseInt((sN[i]));
-                    sum += Math.pow(row - rowN, norm);
-                    sum += Math.pow(col - colN, norm);
-                }
-                redNorm.add(Math.pow(sum, (double) (1 / norm)));
-            }
-        }
-
-
-        for (String king : blackKingsCoord) {
-            int sum = 0;
-
-            String[] s = king.split(",");
-            int row = 0, col = 0;
-            for (int i = 0; i < s.length; i += 2) {
-                row = Integer.parseInt(s[i + 1]);
-                col = Integer.parseInt((s[i]));
-            }
-            for (String normal : redNormalCoord) {
-                String[] sN = normal.split(",");
-                for (int i = 0; i < sN.length; i += 2) {
-                    int rowN = Integer.parseInt(sN[i + 1]);
-                    int colN = Integer.parseInt((sN[i]));
-                    sum += Math.pow(row - rowN, norm);
-                    sum += Math.pow(col - colN, norm);
-                }
-                blackNorm.add(Math.pow(sum, (double) (1 / norm)));
-            }
-        }
-
-        // Get average distance
-        if (redNorm.size() != 0) {
-            for (Double aDouble : redNorm) {
-                red += aDouble;
-            }
-            red /= redNorm.size();
-        }
-        // Get average distance
-        if (blackNorm.size() != 0) {
-            for (Double aDouble : blackNorm) {
-                black += aDouble;
-            }
-            black /= blackNorm.size();
-        }
-
-        return (int) (player == RED ? red - black : black - red);
+    private int advancedDistanceScore(Piece[][] board, int player) {
+        leafPosition.setFromPieces(board);
+        return EvaluationState.advancedDistanceScore(leafPosition, player);
     }
 
-
     /**
      * @param min Minimum Integer
      * @param max Maximum Integer
      * @return Random Integer between min and max
      */
     private int randomInt(int min, int max) {
-        return (int) (Math.random() * ((max - min) + 1)) + min;
+        // ThreadLocalRandom, since Math.random() is shared by every search thread
+        return ThreadLocalRandom.current().nextInt(min, max + 1);
     }
 
     /**
      * This updates the gameBoard array once the player moves a piece
      * If the player's piece arrives at the end of the board we 'king' it.
+     * Everything the move destroys is stored in undo, so that unmakeMove
+     * can restore the board without copying it.
      *
-     * @param fromRow Row from which the Player moves
-     * @param fromCol Column from which the Player moves
-     * @param toRow   Row to which the Player moves
-     * @param toCol   Column to which the Player moves
+     * @param gameBoard The board the move is made on
+     * @param move      The move to make (packed, see PackedMove)
+     * @param captured  Pieces the move jumps
+     * @param undo      Filled with what is needed to take the move back
      */
-    private void makeMove(Piece[][] gameBoard, int fromRow, int fromCol, int toRow, int toCol) {
+    private void makeMove(Piece[][] gameBoard, int move, int captured, UndoRecord undo) {
+        int fromRow = BitBoard.rowOf(PackedMove.from(move)), fromCol = BitBoard.colOf(PackedMove.from(move)),
+                toRow = BitBoard.rowOf(PackedMove.to(move)), toCol = BitBoard.colOf(PackedMove.to(move));
+        undo.reset();
+
         Piece temp = gameBoard[toRow][toCol];
-        temp.resetPiece(EMPTY);
         gameBoard[toRow][toCol] = gameBoard[fromRow][fromCol];
         gameBoard[fromRow][fromCol] = temp;
-        if (Math.abs(fromRow - toRow) == 2) {
-            // The move is a jump.  Remove the jumped piece from the board.
-            int jumpRow = (fromRow + toRow) / 2;  // Row of the jumped piece.
-            int jumpCol = (fromCol + toCol) / 2;  // Column of the jumped piece.
-            gameBoard[jumpRow][jumpCol].resetPiece(EMPTY);
+        // The move is a jump.  Remove the jumped pieces from the board.
+        for (int jumped = captured; jumped != 0; jumped &= jumped - 1) {
+            int square = Integer.numberOfTrailingZeros(jumped);
+            Piece jumpedPiece = gameBoard[BitBoard.rowOf(square)][BitBoard.colOf(square)];
+            undo.captured |= 1 << square;
+            if (jumpedPiece.isKing()) {
+                undo.capturedKings |= 1 << square;
+            }
+            undo.capturedPieceType = jumpedPiece.getPieceType();
+            jumpedPiece.resetPiece(EMPTY);
         }
 
         // If piece gets to other side of board make it into a king
-        if (toRow == 0 && gameBoard[toRow][toCol].getPieceType() == RED && !gameBoard[toRow][toCol].isKing()) {
+        if (PackedMove.isPromotion(move)) {
             gameBoard[toRow][toCol].setKing();
+            undo.promoted = true;
         }
-        if (toRow == numRowsAndColumns - 1 && gameBoard[toRow][toCol].getPieceType() == BLACK && !gameBoard[toRow][toCol].isKing()) {
-            gameBoard[toRow][toCol].setKing();
+    }
+
+    /**
+     * Takes back a move made with makeMove
+     *
+     * @param gameBoard The board the move was made on
+     * @param move      The move to take back
+     * @param undo      The record filled by makeMove
+     */
+    private void unmakeMove(Piece[][] gameBoard, int move, UndoRecord undo) {
+        int fromRow = BitBoard.rowOf(PackedMove.from(move)), fromCol = BitBoard.colOf(PackedMove.from(move)),
+                toRow = BitBoard.rowOf(PackedMove.to(move)), toCol = BitBoard.colOf(PackedMove.to(move));
+        if (undo.promoted) {
+            gameBoard[toRow][toCol].setKing(false);
+        }
+
+        Piece temp = gameBoard[fromRow][fromCol];
+        gameBoard[fromRow][fromCol] = gameBoard[toRow][toCol];
+        gameBoard[toRow][toCol] = temp;
+
+        for (int captured = undo.captured; captured != 0; captured &= captured - 1) {
+            int square = Integer.numberOfTrailingZeros(captured);
+            Piece jumped = gameBoard[BitBoard.rowOf(square)][BitBoard.colOf(square)];
+            jumped.setPieceType(undo.capturedPieceType);
+            jumped.setKing((undo.capturedKings & (1 << square)) != 0);
+        }
+    }
+
+    /**
+     * Follows every jump chain from the last tile of the path and adds each complete chain as a move.
+     * Each jump is made on the board while its continuations are searched, then taken back.
+     * Jumped pieces are removed straight away and a man reaching the far row carries on as a king,
+     * as in the game (Board continues jumps from wherever the piece lands).
+     *
+     * @param gameBoard The board the moves are generated on
+     * @param playerID  Player owning the jumping piece
+     * @param moves     List the moves are added to
+     * @param pathRows  Rows of the tiles visited (pathRows[jumps] is the piece's current row)
+     * @param pathCols  Columns of the tiles visited
+     * @param jumps     Jumps made so far
+     */
+    private void addJumpChains(Piece[][] gameBoard, int playerID, ArrayList<Move> moves,
+                               int[] pathRows, int[] pathCols, int jumps) {
+        int row = pathRows[jumps], col = pathCols[jumps];
+        boolean continued = false;
+        for (int rowStep = -1; rowStep <= 1; rowStep += 2) {
+            for (int colStep = -1; colStep <= 1; colStep += 2) {
+                int jumpRow = row + rowStep, jumpCol = col + colStep,
+                        toRow = row + 2 * rowStep, toCol = col + 2 * colStep;
+                if (!isLegalJump(gameBoard, playerID, row, col, jumpRow, jumpCol, toRow, toCol)) {
+                    continue;
+                }
+                continued = true;
+
+                // Make the jump
+                Piece piece = gameBoard[row][col], jumped = gameBoard[jumpRow][jumpCol];
+                int jumpedType = jumped.getPieceType();
+                boolean jumpedKing = jumped.isKing(), wasKing = piece.isKing();
+                gameBoard[row][col] = gameBoard[toRow][toCol];
+                gameBoard[toRow][toCol] = piece;
+                jumped.resetPiece(EMPTY);
+                if (toRow == (playerID == RED ? 0 : numRowsAndColumns - 1)) {
+                    piece.setKing();
+                }
+
+                pathRows[jumps + 1] = toRow;
+                pathCols[jumps + 1] = toCol;
+                addJumpChains(gameBoard, playerID, moves, pathRows, pathCols, jumps + 1);
+
+                // Take it back
+                piece.setKing(wasKing);
+                jumped.setPieceType(jumpedType);
+                jumped.setKing(jumpedKing);
+                gameBoard[toRow][toCol] = gameBoard[row][col];
+                gameBoard[row][col] = piece;
+            }
+        }
+
+        if (!continued && jumps == 1) {
+            moves.add(new Move(pathRows[0], pathCols[0], row, col));
+        } else if (!continued && jumps > 1) {
+            moves.add(new Move(Arrays.copyOf(pathRows, jumps + 1), Arrays.copyOf(pathCols, jumps + 1)));
         }
     }
 
     /**
+     * The search generates packed moves (see generateMoves), this gives the Move objects handed to the game.
+     *
      * @param playerID Current Player's ID (RED or BLACK)
      * @return Returns Moves array if there are any legal moves
      * <p>
@@ -1117,37 +2765,22 @@ public class AI_Heuristic {
 
 
         ArrayList<Move> moves = new ArrayList<>();  // Moves will be stored in this list (since arrays are immutable).
+        int[] pathRows = new int[Move.MAX_JUMPS + 1],
+                pathCols = new int[Move.MAX_JUMPS + 1];
 
         /*  If a jump is possible, find them first.
          *  Examine each location for a possible jump.
-         *  Check if move is legal, if so, add to ArrayList
+         *  Each chain of jumps is one move (the player's whole turn).
          */
 
         for (int row = 0; row < numRowsAndColumns; row++) {
             for (int col = 0; col < numRowsAndColumns; col++) {
 
-                // Check if piece is current player's
+                // Check if piece is current player's, and follow all of its jump chains
                 if (gameBoard[row][col].getPieceType() == playerID) {
-
-                    // Check if player can jump Northeast
-                    if (isLegalJump(gameBoard, playerID, row, col, row + 1, col + 1, row + 2, col + 2)) {
-                        moves.add(new Move(row, col, row + 2, col + 2));
-                    }
-
-                    // Check if player can jump Northwest
-                    if (isLegalJump(gameBoard, playerID, row, col, row - 1, col + 1, row - 2, col + 2)) {
-                        moves.add(new Move(row, col, row - 2, col + 2));
-                    }
-
-                    // Check if player can jump Southeast
-                    if (isLegalJump(gameBoard, playerID, row, col, row + 1, col - 1, row + 2, col - 2)) {
-                        moves.add(new Move(row, col, row + 2, col - 2));
-                    }
-
-                    // Check if player can jump Southwest
-                    if (isLegalJump(gameBoard, playerID, row, col, row - 1, col - 1, row - 2, col - 2)) {
-                        moves.add(new Move(row, col, row - 2, col - 2));
-                    }
+                    pathRows[0] = row;
+                    pathCols[0] = col;
+                    addJumpChains(gameBoard, playerID, moves, pathRows, pathCols, 0);
                 }
             }
         }
@@ -0,0 +1,52 @@
+import java.util.Random;
+
+/**
+ * Benchmark Positions
+ * The positions the benchmarks (SearchBenchmark, SelectiveSearchBenchmark, SearchDriverBenchmark,
+ * SelectiveMarginReport) search, and SelfPlayMatch starts its games from:
+ * reached by random games from a fixed seed, so every run uses the same positions.
+ */
+final class BenchmarkPositions {
+    private static final long SEED = 20240101L; // Same positions on every run
+
+    private BenchmarkPositions() {
+        // restrict instantiation
+    }
+
+    /**
+     * Fills positions with positions reached by random (seeded) games of minPlies to maxPlies plies.
+     * Positions with a single move, or none, are played again (getBestMove does not search them).
+     *
+     * @param positions    Filled with the positions
+     * @param playerToMove Filled with the player to move in each position
+     * @param minPlies     Fewest plies played
+     * @param maxPlies     Most plies played
+     */
+    static void create(CheckersData[] positions, int[] playerToMove, int minPlies, int maxPlies) {
+        Random random = new Random(SEED);
+        for (int i = 0; i < positions.length; i++) {
+            CheckersData position;
+            int player;
+            do {
+                position = new CheckersData();
+                player = Constants.RED;
+                int plies = minPlies + random.nextInt(maxPlies - minPlies + 1);
+                for (int ply = 0; ply < plies && position.getCompleteMoves(player) != null; ply++) {
+                    Move[] legalMoves = position.getCompleteMoves(player);
+                    position.makeMove(legalMoves[random.nextInt(legalMoves.length)]);
+                    player = player == Constants.RED ? Constants.BLACK : Constants.RED;
+                }
+            } while (position.getCompleteMoves(player) == null || position.getCompleteMoves(player).length < 2);
+            positions[i] = position;
+            playerToMove[i] = player;
+        }
+    }
+
+    /**
+     * @return True if both moves go between the same tiles
+     */
+    static boolean sameMove(Move a, Move b) {
+        return a != null && b != null && a.fromRow == b.fromRow && a.fromCol == b.fromCol
+                && a.toRow == b.toRow && a.toCol == b.toCol;
+    }
+}
@@ -0,0 +1,376 @@
+/**
+ * Bitboard Position
+ * Stores a position as three 32-bit masks over the playable (dark) tiles:
+ * - Red pieces
+ * - Black pieces
+ * - Kings (of either color)
+ * <p>
+ * Dark tiles are those where row % 2 == col % 2 (see CheckersData.setUpCheckerBoard).
+ * Each row holds 4 of them, so tile (row, col) maps to bit: row * 4 + col / 2
+ * <p>
+ * Bit Layout (row 0 is BLACK's back row, row 7 is RED's back row):
+ *     row 0:   0   1   2   3        (cols 0, 2, 4, 6)
+ *     row 1:     4   5   6   7      (cols 1, 3, 5, 7)
+ *     row 2:   8   9  10  11
+ *     ...
+ *     row 7:    28  29  30  31
+ * <p>
+ * Moving one row South (row + 1) is a left shift by 3, 4 or 5 and moving
+ * one row North (row - 1) is an unsigned right shift by 3, 4 or 5.
+ * Shifting by 4 is always legal, the 3 and 5 shifts are only legal from the
+ * rows/columns in SHIFT_3_5_FROM_EVEN and SHIFT_3_5_FROM_ODD.
+ * Bits shifted past either end of the int simply fall off the board.
+ */
+class BitBoard {
+    static final int NUM_SQUARES = 32;
+    private static final int
+            EMPTY = Constants.EMPTY,
+            RED = Constants.RED,
+            BLACK = Constants.BLACK;
+
+    static final int EVEN_ROWS = 0x0F0F0F0F,
+            ODD_ROWS = 0xF0F0F0F0;
+    // Even rows (0, 2, 4, 6) excluding the left most tile: may move South by 3 or North by 5
+    static final int SHIFT_3_5_FROM_EVEN = 0x0E0E0E0E;
+    // Odd rows (1, 3, 5, 7) excluding the right most tile: may move South by 5 or North by 3
+    static final int SHIFT_3_5_FROM_ODD = 0x70707070;
+    // Promotion rows
+    static final int ROW_0 = 0x0000000F,
+            ROW_7 = 0xF0000000;
+
+    int red, black, kings;
+
+    BitBoard() {
+    }
+
+    BitBoard(int red, int black, int kings) {
+        this.red = red;
+        this.black = black;
+        this.kings = kings;
+    }
+
+    /**
+     * @param board Game board that will be converted into masks
+     */
+    BitBoard(Piece[][] board) {
+        setFromPieces(board);
+    }
+
+    /**
+     * @param row Board row
+     * @param col Board column
+     * @return Bit index of tile (row, col) (only meaningful for dark tiles)
+     */
+    static int squareOf(int row, int col) {
+        return row * 4 + col / 2;
+    }
+
+    /**
+     * @param square Bit index
+     * @return Board row of the bit index
+     */
+    static int rowOf(int square) {
+        return square >> 2;
+    }
+
+    /**
+     * @param square Bit index
+     * @return Board column of the bit index
+     */
+    static int colOf(int square) {
+        return 2 * (square & 3) + ((square >> 2) & 1);
+    }
+
+    /**
+     * @param board Game board whose pieces are copied into masks
+     */
+    void setFromPieces(Piece[][] board) {
+        red = 0;
+        black = 0;
+        kings = 0;
+        for (int square = 0; square < NUM_SQUARES; square++) {
+            Piece p = board[rowOf(square)][colOf(square)];
+            if (p.getPieceType() == RED) {
+                red |= 1 << square;
+            } else if (p.getPieceType() == BLACK) {
+                black |= 1 << square;
+            } else {
+                continue;
+            }
+            if (p.isKing()) {
+                kings |= 1 << square;
+            }
+        }
+    }
+
+    /**
+     * Writes the masks back onto an existing board, without allocating new pieces.
+     * Light tiles are always left empty.
+     *
+     * @param board Board (of numRowsAndColumns x numRowsAndColumns pieces) to overwrite
+     */
+    void toPieces(Piece[][] board) {
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                board[row][col].resetPiece(EMPTY);
+            }
+        }
+        for (int square = 0; square < NUM_SQUARES; square++) {
+            int bit = 1 << square;
+            Piece p = board[rowOf(square)][colOf(square)];
+            if ((red & bit) != 0) {
+                p.setPieceType(RED);
+            } else if ((black & bit) != 0) {
+                p.setPieceType(BLACK);
+            }
+            if ((kings & bit) != 0) {
+                p.setKing();
+            }
+        }
+    }
+
+    int getPieces(int playerID) {
+        return playerID == RED ? red : black;
+    }
+
+    int getEmpty() {
+        return ~(red | black);
+    }
+
+    /*
+     * Single diagonal steps (the 4 shift is split by row parity
+     * so that each direction stays on its own diagonal)
+     */
+    static int southWest(int pieces) {
+        return ((pieces & SHIFT_3_5_FROM_EVEN) << 3) | ((pieces & ODD_ROWS) << 4);
+    }
+
+    static int southEast(int pieces) {
+        return ((pieces & EVEN_ROWS) << 4) | ((pieces & SHIFT_3_5_FROM_ODD) << 5);
+    }
+
+    static int northEast(int pieces) {
+        return ((pieces & EVEN_ROWS) >>> 4) | ((pieces & SHIFT_3_5_FROM_ODD) >>> 3);
+    }
+
+    static int northWest(int pieces) {
+        return ((pieces & SHIFT_3_5_FROM_EVEN) >>> 5) | ((pieces & ODD_ROWS) >>> 4);
+    }
+
+    /**
+     * Same rules as CheckersData.getLegalMoves (jumps are forced),
+     * but candidates are found with shifts over the masks
+     * instead of by walking the 8x8 grid.
+     * Each jump chain is written as one (multi-jump) move, like CheckersData.getCompleteMoves.
+     * Nothing is allocated: the moves are written into the buffer, packed (see PackedMove).
+     *
+     * @param playerID Current Player's ID (RED or BLACK)
+     * @param moves    Buffer the moves are written into (PackedMove.SIZE ints per move)
+     * @return Number of legal moves (0 if there are none)
+     */
+    int generateMoves(int playerID, int[] moves) {
+        if (playerID != RED && playerID != BLACK) {
+            return 0;
+        }
+
+        int count = 0;
+        int empty = getEmpty();
+        int own = getPieces(playerID);
+        int opponent = playerID == RED ? black : red;
+        int northMovers = playerID == RED ? own : own & kings;
+        int southMovers = playerID == BLACK ? own : own & kings;
+
+        int jumpers = jumpers(playerID);
+        while (jumpers != 0) {
+            int from = Integer.numberOfTrailingZeros(jumpers);
+            jumpers &= jumpers - 1;
+            boolean king = (kings & (1 << from)) != 0;
+            count = addJumpChains(moves, count, playerID, from, from, 0, own, opponent, king, king);
+        }
+
+        // If there are any legal jumps, force player to jump
+        if (count == 0) {
+            // Only men promote: RED's southMovers and BLACK's northMovers are kings
+            int promotionRow = playerID == RED ? ROW_0 : ROW_7;
+            count = addMoves(moves, count, (southMovers << 4) & empty, 4, promotionRow);
+            count = addMoves(moves, count, ((southMovers & SHIFT_3_5_FROM_EVEN) << 3) & empty, 3, promotionRow);
+            count = addMoves(moves, count, ((southMovers & SHIFT_3_5_FROM_ODD) << 5) & empty, 5, promotionRow);
+            count = addMoves(moves, count, (northMovers >>> 4) & empty, -4, promotionRow);
+            count = addMoves(moves, count, ((northMovers & SHIFT_3_5_FROM_ODD) >>> 3) & empty, -3, promotionRow);
+            count = addMoves(moves, count, ((northMovers & SHIFT_3_5_FROM_EVEN) >>> 5) & empty, -5, promotionRow);
+        }
+        return count;
+    }
+
+    /**
+     * @param playerID Player (RED or BLACK)
+     * @return Mask of the player's pieces that can jump (landing tiles shifted back by the jump distance)
+     */
+    int jumpers(int playerID) {
+        int empty = getEmpty();
+        int own = getPieces(playerID);
+        int opponent = playerID == RED ? black : red;
+        int northMovers = playerID == RED ? own : own & kings;
+        int southMovers = playerID == BLACK ? own : own & kings;
+        return (southWest(southWest(southMovers) & opponent) & empty) >>> 7
+                | (southEast(southEast(southMovers) & opponent) & empty) >>> 9
+                | (northEast(northEast(northMovers) & opponent) & empty) << 7
+                | (northWest(northWest(northMovers) & opponent) & empty) << 9;
+    }
+
+    /**
+     * Follows every jump chain of one piece and adds each complete chain as a move.
+     * Jumped pieces are removed as soon as they are jumped, and a man reaching
+     * the far row carries on jumping as a king (as in CheckersData).
+     *
+     * @param moves    Buffer the moves are written into
+     * @param count    Moves already in the buffer
+     * @param playerID Player owning the piece
+     * @param from     Square the piece started from
+     * @param square   The piece's current square
+     * @param captured Pieces jumped so far
+     * @param own      Player's pieces (with the jumping piece on its current square)
+     * @param opponent Opponent's pieces still on the board
+     * @param king     True if the jumping piece is a king
+     * @param wasKing  True if it was a king before the move
+     * @return Moves in the buffer
+     */
+    private static int addJumpChains(int[] moves, int count, int playerID, int from, int square, int captured,
+                                     int own, int opponent, boolean king, boolean wasKing) {
+        int piece = 1 << square;
+        int empty = ~(own | opponent);
+        boolean north = king || playerID == RED,
+                south = king || playerID == BLACK;
+        boolean continued = false;
+        for (int direction = 0; direction < 4; direction++) {
+            if (direction < 2 ? !south : !north) {
+                continue;
+            }
+            int jumped = BoardGeometry.NEIGHBOUR[direction][square] & opponent;
+            int landing = jumped != 0 ? BoardGeometry.JUMP_TARGET[direction][square] & empty : 0;
+            if (landing == 0) {
+                continue;
+            }
+            continued = true;
+            count = addJumpChains(moves, count, playerID, from, Integer.numberOfTrailingZeros(landing),
+                    captured | jumped, (own & ~piece) | landing, opponent & ~jumped,
+                    king || (landing & (playerID == RED ? ROW_0 : ROW_7)) != 0, wasKing);
+        }
+
+        if (!continued && captured != 0) {
+            moves[count * PackedMove.SIZE] = PackedMove.pack(from, square, king && !wasKing);
+            moves[count * PackedMove.SIZE + 1] = captured;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param pieces    Mask to move
+     * @param direction 0 - South West, 1 - South East, 2 - North East, 3 - North West
+     * @return The mask moved one diagonal step
+     */
+    static int step(int pieces, int direction) {
+        switch (direction) {
+            case 0:
+                return southWest(pieces);
+            case 1:
+                return southEast(pieces);
+            case 2:
+                return northEast(pieces);
+            default:
+                return northWest(pieces);
+        }
+    }
+
+    /**
+     * @param moves        Buffer the moves are written into
+     * @param count        Moves already in the buffer
+     * @param targets      Mask of destination tiles
+     * @param shift        Distance (in bits) from the moving piece to its destination
+     * @param promotionRow Row on which the player's men are 'kinged'
+     * @return Moves in the buffer
+     */
+    private int addMoves(int[] moves, int count, int targets, int shift, int promotionRow) {
+        while (targets != 0) {
+            int to = Integer.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int from = to - shift;
+            boolean promotion = (kings & (1 << from)) == 0 && (promotionRow & (1 << to)) != 0;
+            moves[count * PackedMove.SIZE] = PackedMove.pack(from, to, promotion);
+            moves[count * PackedMove.SIZE + 1] = 0;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Applies a move to the masks.
+     * Removes the jumped pieces and 'kings' pieces reaching the far row.
+     *
+     * @param move     The move to make (packed, see PackedMove)
+     * @param captured Pieces the move jumps
+     * @param undo     Filled with what is needed to take the move back
+     */
+    void makeMove(int move, int captured, UndoRecord undo) {
+        undo.reset();
+        int fromBit = 1 << PackedMove.from(move),
+                toBit = 1 << PackedMove.to(move);
+        boolean redPiece = (red & fromBit) != 0;
+
+        if (captured != 0) {
+            // The move is a jump. Remove the jumped pieces from the board.
+            undo.captured = captured;
+            undo.capturedKings = kings & captured;
+            undo.capturedPieceType = redPiece ? BLACK : RED;
+            red &= ~captured;
+            black &= ~captured;
+            kings &= ~captured;
+        }
+
+        // (A king's multi-jump may end where it started, so pieces are cleared then set rather than toggled)
+        if ((kings & fromBit) != 0) {
+            kings = (kings & ~fromBit) | toBit;
+        } else if (PackedMove.isPromotion(move)) {
+            // If piece gets to other side of board make it into a king
+            kings |= toBit;
+            undo.promoted = true;
+        }
+        if (redPiece) {
+            red = (red & ~fromBit) | toBit;
+        } else {
+            black = (black & ~fromBit) | toBit;
+        }
+    }
+
+    /**
+     * Takes back a move made with makeMove
+     *
+     * @param move The move to take back
+     * @param undo The record filled by makeMove
+     */
+    void unmakeMove(int move, UndoRecord undo) {
+        int fromBit = 1 << PackedMove.from(move),
+                toBit = 1 << PackedMove.to(move);
+
+        if (undo.promoted) {
+            kings &= ~toBit;
+        } else if ((kings & toBit) != 0) {
+            kings = (kings & ~toBit) | fromBit;
+        }
+        if ((red & toBit) != 0) {
+            red = (red & ~toBit) | fromBit;
+        } else {
+            black = (black & ~toBit) | fromBit;
+        }
+
+        if (undo.captured != 0) {
+            if (undo.capturedPieceType == RED) {
+                red |= undo.captured;
+            } else {
+                black |= undo.captured;
+            }
+            kings |= undo.capturedKings;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Block Cache
+ * Bounded LRU cache of decompressed tablebase blocks, shared by every slice of a tablebase
+ * (and every search thread probing it).
+ * Blocks are keyed by slice and block number: (slice key << 32) | block.
+ * <p>
+ * The cache is split into SEGMENTS independent LRU segments, each with its own lock, and a block
+ * always goes to the segment its key hashes to. Threads probing different blocks then rarely
+ * wait for each other, and each segment still evicts its least recently used block.
+ * A missing block is decompressed outside the segment's lock, and misses of the same block
+ * wait for one decompression (through the loading map) instead of each decompressing it.
+ */
+class BlockCache {
+    private static final int SEGMENTS = 16; // Power of 2
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final ConcurrentHashMap<Long, byte[]> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder(),
+            misses = new LongAdder();
+
+    /**
+     * Access ordered, so the eldest entry is the least recently used block
+     */
+    private static final class Segment extends LinkedHashMap<Long, byte[]> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * @param sizeInMegabytes Cache size
+     * @param blockSize       Bytes per decompressed block
+     */
+    BlockCache(int sizeInMegabytes, int blockSize) {
+        int capacity = (int) Math.max(1, (long) sizeInMegabytes * 1024 * 1024 / blockSize / SEGMENTS);
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            segments[segment] = new Segment(capacity);
+        }
+    }
+
+    static long blockKey(int sliceKey, int block) {
+        return (long) sliceKey << 32 | block;
+    }
+
+    /**
+     * @param slice Compressed slice
+     * @param block Block of the slice
+     * @return The decompressed block (decompressed now if it is not cached, counted as a miss)
+     */
+    byte[] get(CompressedTablebase slice, int block) {
+        long blockKey = blockKey(slice.getSliceKey(), block);
+        // Segments are chosen by the top bits of the key's (Fibonacci) hash
+        Segment segment = segments[(int) ((blockKey * 0x9E3779B97F4A7C15L) >>> SEGMENT_SHIFT)];
+        byte[] values;
+        synchronized (segment) {
+            values = segment.get(blockKey);
+        }
+        if (values != null) {
+            hits.increment();
+            return values;
+        }
+        misses.increment();
+        values = loading.computeIfAbsent(blockKey, key -> {
+            byte[] cached;
+            synchronized (segment) {
+                // Another thread may have stored it since the lookup
+                cached = segment.get(key);
+            }
+            if (cached != null) {
+                return cached;
+            }
+            byte[] decompressed = slice.decompress(block);
+            synchronized (segment) {
+                segment.put(key, decompressed);
+            }
+            return decompressed;
+        });
+        loading.remove(blockKey);
+        return values;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+}
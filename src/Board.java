@@ -47,6 +47,9 @@ class Board extends JPanel implements ActionListener, MouseListener {
     private boolean showGameOverPopUp = false;
     private boolean singleAI = Constants.default_SingleAI;
     private AI_Heuristic computerPlayer, computerPlayer2;
+    private Move[] computerJumps; // Jumps of the computer's multi-jump, played one at a time
+    private int computerJumpIndex;
+    private volatile int gameNumber; // Computer moves are only played in the game they were requested in
 
 
     Board(Color backgroundColor) {
@@ -80,9 +83,14 @@ class Board extends JPanel implements ActionListener, MouseListener {
             message.setText("Cannot start new game if there is one currently in progress!");
             return;
         }
+        // Nothing may still be thinking about the last game (pondering runs until it is stopped)
+        stopPondering(computerPlayer);
+        stopPondering(computerPlayer2);
+        gameNumber++;
         playerTwoIsBlack();
 
         board.setUpCheckerBoard(numRowsAndColumns);
+        computerJumps = null;
         currentPlayer = CheckersData.RED;   // RED moves first.
         legalMoves = board.getLegalMoves(CheckersData.RED);  // Get RED's legal moves.
 
@@ -103,31 +111,29 @@ class Board extends JPanel implements ActionListener, MouseListener {
                 setCOMPUTER_MOVE_DELAY_IN_MILLISECONDS(COMPUTER_MOVE_DELAY_IN_MILLISECONDS * computerDifficulty * 4 / 5);
                 setCOMPUTER_JUMP_DELAY_IN_MILLISECONDS(COMPUTER_JUMP_DELAY_IN_MILLISECONDS * computerDifficulty * 4 / 5);
             }
-            computerPlayer = new AI_Heuristic(
-                    CheckersData.BLACK,
-                    computerDifficulty,
-                    board.gamePieces,
-                    numRowsAndColumns);
+            // The computer players are kept from game to game (with their search tables),
+            // new ones are only made when the difficulty changes
+            computerPlayer = newComputerPlayer(computerPlayer, CheckersData.BLACK);
 
             if (!singleAI) {
-                computerPlayer2 = new AI_Heuristic(
-                        CheckersData.RED,
-                        computerDifficulty,
-                        board.gamePieces,
-                        numRowsAndColumns);
+                computerPlayer2 = newComputerPlayer(computerPlayer2, CheckersData.RED);
                 // Delay move to allow user to see computer 'think' by delaying time to computation
                 repaint();
+                clearStopSearch();
+                int game = gameNumber;
                 new java.util.Timer().schedule(
                         new java.util.TimerTask() {
                             @Override
                             public void run() {
-                                computerPlayer2.updateGameBoard(board.gamePieces);
-                                doMakeMove(computerPlayer2.getBestMove());
+                                doComputerMove(computerPlayer2, game);
                             }
                         },
                         // The First Move Should start being calculated quickly
                         Constants.default_COMPUTER_JUMP_DELAY_IN_MILLISECONDS / 100
                 );
+            } else {
+                // Human moves first: the computer thinks about its reply in the meantime
+                computerPlayer.startPondering(board.gamePieces);
             }
         }
 
@@ -135,6 +141,60 @@ class Board extends JPanel implements ActionListener, MouseListener {
         repaint();
     }
 
+    /**
+     * @param computerPlayer Computer player of the last game (or null)
+     * @param playerID       Player the computer plays
+     * @return The computer player for the new game
+     */
+    private AI_Heuristic newComputerPlayer(AI_Heuristic computerPlayer, int playerID) {
+        if (computerPlayer == null || computerPlayer.getDifficulty() != computerDifficulty) {
+            stopPondering(computerPlayer);
+            return new AI_Heuristic(playerID, computerDifficulty, board.gamePieces, numRowsAndColumns);
+        }
+        computerPlayer.updateGameBoard(board.gamePieces);
+        return computerPlayer;
+    }
+
+    /**
+     * Timer thread: the computer player searches the board and makes its move.
+     * A move whose game ended while the computer was thinking (even if a new game has started since) is dropped.
+     *
+     * @param computerPlayer Computer player to move
+     * @param game           Game the move was requested in (see gameNumber)
+     */
+    private void doComputerMove(AI_Heuristic computerPlayer, int game) {
+        if (game != gameNumber) {
+            return;
+        }
+        computerPlayer.updateGameBoard(board.gamePieces);
+        Move move = computerPlayer.getBestMove();
+        if (game == gameNumber) {
+            doMakeMove(move);
+        }
+    }
+
+    /**
+     * Called when a computer move is requested, before its search is scheduled:
+     * a stopSearch from then on (gameOver) stops that search, even one that has not started yet.
+     */
+    private void clearStopSearch() {
+        if (computerPlayer != null) {
+            computerPlayer.clearStopSearch();
+        }
+        if (computerPlayer2 != null) {
+            computerPlayer2.clearStopSearch();
+        }
+    }
+
+    /**
+     * @param computerPlayer Computer player to stop pondering (or null)
+     */
+    private void stopPondering(AI_Heuristic computerPlayer) {
+        if (computerPlayer != null) {
+            computerPlayer.stopPondering();
+        }
+    }
+
     public void setPlayerTwoIsBlack(boolean playerOneIsBlack) {
         this.playerTwoIsBlack = playerOneIsBlack;
     }
@@ -191,6 +251,15 @@ class Board extends JPanel implements ActionListener, MouseListener {
 
         message.setText(str);
         gameInProgress = !gameInProgress;
+
+        // Stop any computer search still thinking about this game
+        if (computerPlayer != null) {
+            computerPlayer.stopPondering();
+            computerPlayer.stopSearch();
+        }
+        if (computerPlayer2 != null) {
+            computerPlayer2.stopSearch();
+        }
     }
 
 
@@ -246,10 +315,18 @@ class Board extends JPanel implements ActionListener, MouseListener {
      */
     private void doMakeMove(Move move) {
         // Only allow AI to Make Moves IF a current game is in Progress (otherwise it will loop until game end)
-        if (!gameInProgress) {
+        // (A stopped search returns no move)
+        if (!gameInProgress || move == null) {
             return;
         }
 
+        // The computer returns a multi-jump as one move: play its first jump, the rest follow below
+        if (move.isMultiJump()) {
+            computerJumps = move.getJumps();
+            computerJumpIndex = 0;
+            move = computerJumps[0];
+        }
+
 //        if (computerDifficulty != Constants.difficulty_ZERO && currentPlayer == CheckersData.BLACK) {
         if (computerDifficulty != Constants.difficulty_ZERO && isComputerPlayingAndIsItComputersTurn()) {
             repaint();
@@ -269,17 +346,24 @@ class Board extends JPanel implements ActionListener, MouseListener {
                 // AI turn (If there is one)
                 if (isComputerPlayingAndIsItComputersTurn()) {
                     // Delay move to allow user to see computer 'think' by delaying time to computation
+                    clearStopSearch();
+                    int game = gameNumber;
                     new java.util.Timer().schedule(
                             new java.util.TimerTask() {
                                 @Override
                                 public void run() {
+                                    if (game != gameNumber) {
+                                        return; // (Requested in a game that has ended)
+                                    }
+                                    // Next jump of the computer's multi-jump
+                                    if (computerJumps != null && computerJumpIndex + 1 < computerJumps.length) {
+                                        doMakeMove(computerJumps[++computerJumpIndex]);
+                                    }
                                     // AI turn (If there is one)
-                                    if (singleAI || currentPlayer == computerPlayer.getComputerPlayerID()) {
-                                        computerPlayer.updateGameBoard(board.gamePieces);
-                                        doMakeMove(computerPlayer.getBestMove());
+                                    else if (singleAI || currentPlayer == computerPlayer.getComputerPlayerID()) {
+                                        doComputerMove(computerPlayer, game);
                                     } else if (currentPlayer == computerPlayer2.getComputerPlayerID()) {
-                                        computerPlayer2.updateGameBoard(board.gamePieces);
-                                        doMakeMove(computerPlayer2.getBestMove());
+                                        doComputerMove(computerPlayer2, game);
                                     }
                                     return;
                                 }
@@ -301,6 +385,7 @@ class Board extends JPanel implements ActionListener, MouseListener {
          * When turn ends, change player. (Switch players)
          * End game if there are no more legal moves.
          */
+        computerJumps = null;
         if (currentPlayer == CheckersData.RED) {
             currentPlayer = CheckersData.BLACK;
             legalMoves = board.getLegalMoves(currentPlayer);
@@ -340,22 +425,25 @@ class Board extends JPanel implements ActionListener, MouseListener {
             // AI turn (If there is one)
             if (isComputerPlayingAndIsItComputersTurn()) {
                 // Delay move to allow user to see computer 'think' by delaying time to computation
+                clearStopSearch();
+                int game = gameNumber;
                 new java.util.Timer().schedule(
                         new java.util.TimerTask() {
                             @Override
                             public void run() {
                                 if (singleAI || currentPlayer == computerPlayer.getComputerPlayerID()) {
-                                    computerPlayer.updateGameBoard(board.gamePieces);
-                                    doMakeMove(computerPlayer.getBestMove());
+                                    doComputerMove(computerPlayer, game);
                                 } else if (currentPlayer == computerPlayer2.getComputerPlayerID()) {
-                                    computerPlayer2.updateGameBoard(board.gamePieces);
-                                    doMakeMove(computerPlayer2.getBestMove());
+                                    doComputerMove(computerPlayer2, game);
                                 }
                                 return;
                             }
                         },
                         COMPUTER_MOVE_DELAY_IN_MILLISECONDS
                 );
+            } else if (computerDifficulty != Constants.difficulty_ZERO && singleAI) {
+                // Human's turn: the computer thinks about its reply in the meantime
+                computerPlayer.startPondering(board.gamePieces);
             }
             boolean isOnlyOneLegalPieceToMove = true;
             for (Move legalMove : legalMoves) {
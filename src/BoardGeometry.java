@@ -0,0 +1,60 @@
+/**
+ * Board Geometry
+ * Lookup tables over the 32 dark tiles (BitBoard square indices), built once when the class loads:
+ * - Squared distance between two squares (the heuristic's distances use the Euclidean norm)
+ * - Rounded down root of sums of those squared distances
+ * - Diagonal neighbours and jump targets of each square, for every direction of BitBoard.step
+ * - Distance of each square to each player's promotion row
+ * <p>
+ * Looking a value up replaces the shifts, Math.pow calls and coordinate conversions
+ * the evaluation would otherwise repeat at every leaf.
+ */
+final class BoardGeometry {
+
+    private BoardGeometry() {
+        // restrict instantiation
+    }
+
+    static final int NORM = 2;
+    static final int DIRECTIONS = 4;
+    private static final int LAST_ROW = 7;
+
+    // Largest squared distance between two tiles (opposite corners), and the largest sum of them over the board
+    static final int MAX_SQUARED_DISTANCE = 2 * LAST_ROW * LAST_ROW,
+            MAX_DISTANCE_SUM = BitBoard.NUM_SQUARES * MAX_SQUARED_DISTANCE;
+
+    // [square][square]: (col - col')^2 + (row - row')^2
+    static final int[][] SQUARED_DISTANCE = new int[BitBoard.NUM_SQUARES][BitBoard.NUM_SQUARES];
+    // [sum]: (int) sum^(1 / NORM)
+    static final int[] ROOT = new int[MAX_DISTANCE_SUM + 1];
+    // [direction][square]: mask of the tile one step away, and of the tile a jump lands on (0 if off the board)
+    static final int[][] NEIGHBOUR = new int[DIRECTIONS][BitBoard.NUM_SQUARES],
+            JUMP_TARGET = new int[DIRECTIONS][BitBoard.NUM_SQUARES];
+    // [square]: neighbours on the row above (North) and below (South)
+    static final int[] NORTH = new int[BitBoard.NUM_SQUARES],
+            SOUTH = new int[BitBoard.NUM_SQUARES];
+    // [playerID][square]: rows a man on the square is from promotion, as counted by
+    // AI_Heuristic.meanDistanceToPromotionScore (RED: 7 - row, BLACK: row + 1)
+    static final int[][] PROMOTION_DISTANCE = new int[3][BitBoard.NUM_SQUARES];
+
+    static {
+        for (int a = 0; a < BitBoard.NUM_SQUARES; a++) {
+            for (int b = 0; b < BitBoard.NUM_SQUARES; b++) {
+                int cols = BitBoard.colOf(a) - BitBoard.colOf(b),
+                        rows = BitBoard.rowOf(a) - BitBoard.rowOf(b);
+                SQUARED_DISTANCE[a][b] = cols * cols + rows * rows;
+            }
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                NEIGHBOUR[direction][a] = BitBoard.step(1 << a, direction);
+                JUMP_TARGET[direction][a] = BitBoard.step(NEIGHBOUR[direction][a], direction);
+            }
+            NORTH[a] = BitBoard.northEast(1 << a) | BitBoard.northWest(1 << a);
+            SOUTH[a] = BitBoard.southEast(1 << a) | BitBoard.southWest(1 << a);
+            PROMOTION_DISTANCE[Constants.RED][a] = LAST_ROW - BitBoard.rowOf(a);
+            PROMOTION_DISTANCE[Constants.BLACK][a] = BitBoard.rowOf(a) + 1;
+        }
+        for (int sum = 0; sum <= MAX_DISTANCE_SUM; sum++) {
+            ROOT[sum] = (int) Math.pow((double) sum, (double) 1 / NORM);
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Stores game data:
@@ -185,6 +186,86 @@ class CheckersData {
 
     }
 
+    /**
+     * Plays a whole move, one jump at a time for multi-jumps
+     *
+     * @param move The move to play
+     */
+    void makeMove(Move move) {
+        for (Move jump : move.getJumps()) {
+            makeMove(jump.fromRow, jump.fromCol, jump.toRow, jump.toCol);
+        }
+    }
+
+    /**
+     * Same as getLegalMoves, except that a piece that can keep jumping does so:
+     * each chain of jumps is returned as one (multi-jump) move.
+     * The moves are the whole turns a player can make, as the AI sees them.
+     *
+     * @param playerID Current Player's ID (RED or BLACK)
+     * @return Returns Moves array if there are any legal moves, null otherwise
+     */
+    Move[] getCompleteMoves(int playerID) {
+        Move[] legalMoves = getLegalMoves(playerID);
+        if (legalMoves == null || !legalMoves[0].isJump()) {
+            return legalMoves;
+        }
+
+        ArrayList<Move> moves = new ArrayList<>();
+        int[] pathRows = new int[Move.MAX_JUMPS + 1],
+                pathCols = new int[Move.MAX_JUMPS + 1];
+        for (Move jump : legalMoves) {
+            pathRows[0] = jump.fromRow;
+            pathCols[0] = jump.fromCol;
+            pathRows[1] = jump.toRow;
+            pathCols[1] = jump.toCol;
+            addJumpChains(playerID, moves, pathRows, pathCols, 1);
+        }
+        return moves.toArray(new Move[moves.size()]);
+    }
+
+    /**
+     * Makes the last jump of the path, adds the chain as a move if it cannot
+     * be continued (otherwise continues it), then takes the jump back.
+     *
+     * @param playerID Player owning the jumping piece
+     * @param moves    List the moves are added to
+     * @param pathRows Rows of the tiles visited
+     * @param pathCols Columns of the tiles visited
+     * @param jumps    Number of jumps in the path
+     */
+    private void addJumpChains(int playerID, ArrayList<Move> moves, int[] pathRows, int[] pathCols, int jumps) {
+        int fromRow = pathRows[jumps - 1], fromCol = pathCols[jumps - 1],
+                row = pathRows[jumps], col = pathCols[jumps];
+        int jumpRow = (fromRow + row) / 2, jumpCol = (fromCol + col) / 2;
+        Piece jumped = gamePieces[jumpRow][jumpCol];
+        int jumpedType = jumped.getPieceType();
+        boolean jumpedKing = jumped.isKing();
+        boolean wasKing = gamePieces[fromRow][fromCol].isKing();
+        makeMove(fromRow, fromCol, row, col);
+
+        Move[] nextJumps = getLegalJumpsFromPosition(playerID, row, col);
+        if (nextJumps == null) {
+            moves.add(jumps == 1
+                    ? new Move(pathRows[0], pathCols[0], row, col)
+                    : new Move(Arrays.copyOf(pathRows, jumps + 1), Arrays.copyOf(pathCols, jumps + 1)));
+        } else {
+            for (Move jump : nextJumps) {
+                pathRows[jumps + 1] = jump.toRow;
+                pathCols[jumps + 1] = jump.toCol;
+                addJumpChains(playerID, moves, pathRows, pathCols, jumps + 1);
+            }
+        }
+
+        // Take the jump back
+        Piece temp = gamePieces[fromRow][fromCol];
+        gamePieces[fromRow][fromCol] = gamePieces[row][col];
+        gamePieces[row][col] = temp;
+        gamePieces[fromRow][fromCol].setKing(wasKing);
+        jumped.setPieceType(jumpedType);
+        jumped.setKing(jumpedKing);
+    }
+
     /**
      * Constructs an array of legal jumps for a given player
      * <p>
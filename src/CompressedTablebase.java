@@ -0,0 +1,181 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed Tablebase Slice
+ * Block compressed version of an EndgameTablebase slice file, so that large tablebases
+ * do not have to be kept in memory: a probe only decompresses the 4 KB block it needs.
+ * <p>
+ * File Layout:
+ * - int:    MAGIC
+ * - int:    Number of values (bytes of the uncompressed slice)
+ * - int:    Number of blocks
+ * - long[]: Offset of each block in the file, plus the end of the last block
+ * - Blocks
+ * <p>
+ * Each block of BLOCK_SIZE values is run-length encoded
+ * (value, then run length - 1 as a base-128 varint), and the runs are entropy coded
+ * (Huffman only deflate: tablebase values have no long repeated patterns for LZ77 to find).
+ */
+class CompressedTablebase {
+    static final int BLOCK_SIZE = 4096;
+    private static final int MAGIC = 0x54424331; // "TBC1"
+    private static final int HEADER_SIZE = 12;
+
+    private final int sliceKey;
+    private final MappedByteBuffer file;
+    private final int valueCount;
+    private final BlockCache cache;
+
+    private CompressedTablebase(int sliceKey, MappedByteBuffer file, BlockCache cache) throws IOException {
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("Not a compressed tablebase file");
+        }
+        this.sliceKey = sliceKey;
+        this.file = file;
+        this.valueCount = file.getInt(4);
+        this.cache = cache;
+    }
+
+    /**
+     * @param sliceKey Slice stored in the file
+     * @param file     File written by write
+     * @param cache    Cache for the decompressed blocks
+     * @return The slice, ready to probe
+     */
+    static CompressedTablebase open(int sliceKey, File file, BlockCache cache) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            return new CompressedTablebase(sliceKey, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), cache);
+        }
+    }
+
+    /**
+     * @param index Value index (same as in the uncompressed slice)
+     * @return The value
+     */
+    byte get(int index) {
+        return cache.get(this, index / BLOCK_SIZE)[index % BLOCK_SIZE];
+    }
+
+    int getSliceKey() {
+        return sliceKey;
+    }
+
+    /**
+     * @param block Block of the slice
+     * @return The block's values (called by the cache on a miss)
+     */
+    byte[] decompress(int block) {
+        int offsetPosition = HEADER_SIZE + block * Long.BYTES;
+        int start = (int) file.getLong(offsetPosition),
+                end = (int) file.getLong(offsetPosition + Long.BYTES);
+        byte[] runs = new byte[BLOCK_SIZE * 2];
+        int runsLength = 0;
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(file.slice(start, end - start));
+            while (!inflater.finished() && runsLength < runs.length) {
+                int inflated = inflater.inflate(runs, runsLength, runs.length - runsLength);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                runsLength += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt tablebase block " + block + " of "
+                    + EndgameTablebase.fileName(sliceKey), e);
+        } finally {
+            inflater.end();
+        }
+
+        byte[] values = new byte[Math.min(BLOCK_SIZE, valueCount - block * BLOCK_SIZE)];
+        int position = 0;
+        for (int i = 0; i < runsLength; ) {
+            byte value = runs[i++];
+            int runLength = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = runs[i++];
+                runLength |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            for (int j = 0; j <= runLength; j++) {
+                values[position++] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param file   File to write
+     * @param values Values of the slice (as in the uncompressed file)
+     */
+    static void write(File file, byte[] values) throws IOException {
+        int blockCount = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long[] offsets = new long[blockCount + 1];
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        long dataStart = HEADER_SIZE + (long) offsets.length * Long.BYTES;
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setStrategy(Deflater.HUFFMAN_ONLY);
+        byte[] buffer = new byte[BLOCK_SIZE * 2];
+        for (int block = 0; block < blockCount; block++) {
+            offsets[block] = dataStart + blocks.size();
+            int from = block * BLOCK_SIZE,
+                    to = Math.min(values.length, from + BLOCK_SIZE);
+            deflater.reset();
+            deflater.setInput(runLengthEncode(values, from, to));
+            deflater.finish();
+            while (!deflater.finished()) {
+                blocks.write(buffer, 0, deflater.deflate(buffer));
+            }
+        }
+        deflater.end();
+        offsets[blockCount] = dataStart + blocks.size();
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(values.length);
+            out.writeInt(blockCount);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            blocks.writeTo(out);
+        }
+    }
+
+    private static byte[] runLengthEncode(byte[] values, int from, int to) {
+        ByteBuffer runs = ByteBuffer.allocate((to - from) * 2);
+        for (int i = from; i < to; ) {
+            byte value = values[i];
+            int runLength = 1;
+            while (i + runLength < to && values[i + runLength] == value) {
+                runLength++;
+            }
+            i += runLength;
+            runs.put(value);
+            for (int remaining = runLength - 1; ; remaining >>>= 7) {
+                if (remaining < 0x80) {
+                    runs.put((byte) remaining);
+                    break;
+                }
+                runs.put((byte) (remaining & 0x7F | 0x80));
+            }
+        }
+        byte[] encoded = new byte[runs.position()];
+        runs.flip();
+        runs.get(encoded);
+        return encoded;
+    }
+}
@@ -60,8 +60,86 @@ public final class Constants {
     public static final int default_COMPUTER_MOVE_DELAY_IN_MILLISECONDS = 1000,
             default_COMPUTER_JUMP_DELAY_IN_MILLISECONDS = 1000;
 
+    // Computer think time per move (by difficulty). The search deepens until this runs out,
+    // or until the difficulty's depth cap is reached. 0 - Only the depth cap applies
+    public static final int[] difficultyTimeBudgetInMilliseconds = {0, 0, 500, 1500, 3000};
+
 
     // Variables determining Random changes in Heuristic
     public static final int RMIN = -10, RMAX = 10;
 
+    // AI search engine: search on 32-bit masks (BitBoard) instead of the Piece[][] grid
+    public static final boolean default_BitBoardSearch = true;
+    // Transposition table size (0 disables the table)
+    public static final int default_TRANSPOSITION_TABLE_SIZE_IN_MB = 16;
+    // Evaluation cache size per search thread (0 disables the cache)
+    public static final int default_EVALUATION_CACHE_SIZE_IN_KB = 1024;
+    // Men structure cache size per search thread (0 disables the cache)
+    public static final int default_MEN_STRUCTURE_CACHE_SIZE_IN_KB = 64;
+    // Principal Variation Search (null windows + root aspiration windows) instead of plain negamax
+    public static final boolean default_PrincipalVariationSearch = true;
+    // Incremental evaluation (BitBoard search only): material is kept up to date move by move,
+    // and the other terms are computed from the masks instead of scanning the board
+    public static final boolean default_IncrementalEvaluation = true;
+    // Fused evaluation (Hard): every term of the heuristic collected in one pass over the pieces
+    public static final boolean default_FusedEvaluation = true;
+    // Lazy evaluation (Hard): return the material bound of a leaf that cannot reach the search window
+    public static final boolean default_LazyEvaluation = true;
+    // Evaluation noise: a random amount (within the stage's range) is added to every leaf, so equal moves vary
+    // (false - deterministic scores, e.g. to compare searches)
+    public static final boolean default_EvaluationNoise = true;
+    // Selective search: futility pruning near the leaves, late move reductions, ProbCut
+    // (off until they are shown to pay for the moves they change, see SelectiveSearchBenchmark)
+    public static final boolean default_FutilityPruning = false,
+            default_LateMoveReductions = false,
+            default_ProbCut = false;
+    // Selective search margins, the smallest that pruned or cut no move wrongly in SelectiveMarginReport
+    // (depth 12, 40 positions): [depth] added to a quiet child's static score before futility pruning compares
+    // it with alpha (0 at depth 1: the child's score is its search value), and how far above beta
+    // ProbCut's shallow search must fail high
+    public static final int[] default_FUTILITY_MARGINS = {0, 0, 5500};
+    public static final int default_PROBCUT_MARGIN = 10000;
+    // Search extensions, in quarter plies (AI_Heuristic.ONE_PLY = 4): moves crowning a man,
+    // single legal replies and moves leaving a capture pending are searched deeper (0 - no extension)
+    public static final int default_PROMOTION_EXTENSION = 4,
+            default_SINGLE_REPLY_EXTENSION = 4,
+            default_CAPTURE_EXTENSION = 0;
+    // Extensions a search thread may make, in percent of the nodes it searched
+    public static final int default_EXTENSION_BUDGET_PERCENT = 5;
+    // Threads searching in parallel (1 - single threaded search)
+    public static final int default_SEARCH_THREADS = 1;
+    // How the threads share the work:
+    // Root Split - root moves are split between the threads
+    // Lazy SMP - every thread runs the whole search (at staggered depths), sharing the transposition table
+    public static final int parallelSearch_RootSplit = 0,
+            parallelSearch_LazySMP = 1,
+            default_ParallelSearch = parallelSearch_LazySMP;
+    public static final String[] parallelSearchNames = {"Root Split", "Lazy SMP"};
+    // How each iteration searches the root:
+    // Alpha-Beta - one (aspiration) window search of negamaxAB
+    // MTD(f) - zero window searches converging on the score, starting from the previous iteration's
+    //          (needs the transposition table, alpha-beta is used without one)
+    public static final int searchDriver_AlphaBeta = 0,
+            searchDriver_MTDf = 1,
+            default_SearchDriver = searchDriver_AlphaBeta;
+    public static final String[] searchDriverNames = {"Alpha-Beta", "MTD(f)"};
+    // Least distance the next MTD(f) guess moves past the last pass's bound
+    // (1 - textbook MTD(f); with evaluation noise each pass's score lands just past the bound, so single steps crawl)
+    public static final int default_MTDF_STEP = 100;
+    // Plies of forced jumps resolved past the search depth before evaluating (0 disables quiescence search)
+    public static final int default_QUIESCENCE_DEPTH = 12;
+    // Endgame tablebase (built by TablebaseGenerator): positions with up to this many pieces are scored exactly
+    // The search runs without it if the directory does not exist
+    public static final String default_TABLEBASE_DIRECTORY = "tablebases";
+    public static final int default_TABLEBASE_PIECES = 4;
+    // Write the tablebase block compressed (probes then decompress 4 KB blocks into a cache of this size)
+    public static final boolean default_TABLEBASE_COMPRESSED = true;
+    public static final int default_TABLEBASE_CACHE_SIZE_IN_MB = 16;
+    // Opening book (built by OpeningBookBuilder), consulted before searching. Not used if the file does not exist
+    public static final String default_OPENING_BOOK_FILE = "openingbook.bin";
+    // Computer Vs Human: search on the human's time. Every human reply is pondered if there are
+    // this many or fewer, otherwise only the expected one
+    public static final boolean default_Pondering = true;
+    public static final int default_PONDER_ALL_REPLIES = 4;
+
 }
\ No newline at end of file
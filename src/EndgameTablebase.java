@@ -0,0 +1,355 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Endgame Tablebase
+ * Exact results (win/loss/draw and distance to the end) of every position with few pieces,
+ * built offline by TablebaseGenerator and read here through memory-mapped files.
+ * <p>
+ * Positions are split into slices by material: (red men, red kings, black men, black kings).
+ * Each slice is one file holding one byte per position for RED to move, then one per position for BLACK to move.
+ * The file is either mapped as is (.tb), or block compressed (.tbc, see CompressedTablebase),
+ * in which case probes go through a shared cache of decompressed blocks.
+ * <p>
+ * Index (perfect: every index in [0, sliceSize) is exactly one legal placement):
+ * - Red men can not stand on row 0 and black men can not stand on row 7 (they would be kings).
+ * The red men are split by how many (j) stand on row 7, the only row black men can not reach.
+ * Block j holds C(4, j) * C(24, redMen - j) * C(28 - (redMen - j), blackMen) placements:
+ * the red men on row 7, the other red men on rows 1-6, then the black men on rows 0-6 around them.
+ * - Red kings are placed on the squares left, then black kings on the squares still left.
+ * Each group of pieces is ranked with the combinatorial number system over the squares available to it.
+ * <p>
+ * Values (from the point of view of the player to move):
+ * 0     -   Draw (neither player can force a win)
+ * n > 0 -   Win in n plies
+ * n < 0 -   Loss in -n - 1 plies (-1: no legal moves)
+ */
+class EndgameTablebase {
+    static final byte DRAW = 0;
+    static final int NOT_FOUND = Integer.MIN_VALUE; // Probe result for positions outside the tablebase
+    static final int MAX_DISTANCE = 126; // Longest distance that fits in a byte (both for wins and losses)
+
+    private static final int ROW_7 = BitBoard.ROW_7,
+            MIDDLE_ROWS = 0x0FFFFFF0, // Rows 1-6
+            BLACK_MEN_SQUARES = 0x0FFFFFFF; // Rows 0-6
+    private static final long[][] BINOMIAL = new long[BitBoard.NUM_SQUARES + 1][BitBoard.NUM_SQUARES + 1];
+
+    static {
+        for (int n = 0; n <= BitBoard.NUM_SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private static final ConcurrentHashMap<String, EndgameTablebase> openTablebases = new ConcurrentHashMap<>();
+
+    private final File directory;
+    private final int maxPieces;
+    private final ConcurrentHashMap<Integer, MappedByteBuffer> slices = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CompressedTablebase> compressedSlices = new ConcurrentHashMap<>();
+    private final BlockCache cache = new BlockCache(Constants.default_TABLEBASE_CACHE_SIZE_IN_MB, CompressedTablebase.BLOCK_SIZE);
+
+    private EndgameTablebase(File directory, int maxPieces) {
+        this.directory = directory;
+        this.maxPieces = maxPieces;
+    }
+
+    /**
+     * Tablebases are shared by every AI (and search thread), each directory is only opened once.
+     *
+     * @param directory Directory written by TablebaseGenerator
+     * @param maxPieces Largest number of pieces to probe
+     * @return The tablebase, or null if the directory does not exist
+     */
+    static EndgameTablebase open(String directory, int maxPieces) {
+        File dir = new File(directory);
+        if (!dir.isDirectory() || maxPieces < 2) {
+            return null;
+        }
+        return openTablebases.computeIfAbsent(dir.getAbsolutePath() + ":" + maxPieces,
+                key -> new EndgameTablebase(dir, maxPieces));
+    }
+
+    int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * @param position Position to look up
+     * @param playerID Player to move
+     * @return Tablebase value (see class comment), or NOT_FOUND
+     */
+    int probe(BitBoard position, int playerID) {
+        int pieces = Integer.bitCount(position.red | position.black);
+        if (pieces > maxPieces || position.red == 0 || position.black == 0) {
+            return NOT_FOUND;
+        }
+        int key = sliceKey(position);
+        long index = index(position);
+        if (playerID == Constants.BLACK) {
+            index += sliceSize(key);
+        }
+
+        CompressedTablebase compressedSlice = compressedSlices.get(key);
+        if (compressedSlice != null) {
+            return compressedSlice.get((int) index);
+        }
+        MappedByteBuffer slice = slices.get(key);
+        if (slice != null) {
+            return slice.get((int) index);
+        }
+        if (openCompressed(key)) {
+            return compressedSlices.get(key).get((int) index);
+        }
+        slice = map(key);
+        return slice == null ? NOT_FOUND : slice.get((int) index);
+    }
+
+    /**
+     * @return Probes answered by the block cache
+     */
+    long getCacheHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * @return Probes that had to decompress a block
+     */
+    long getCacheMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * @param key Slice to open
+     * @return True if the slice has a compressed file (now open)
+     */
+    private boolean openCompressed(int key) {
+        File file = new File(directory, compressedFileName(key));
+        if (!file.isFile()) {
+            return false;
+        }
+        try {
+            compressedSlices.putIfAbsent(key, CompressedTablebase.open(key, file, cache));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not open tablebase file " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param key Slice to map
+     * @return The mapped slice, or null if its file is missing
+     */
+    private MappedByteBuffer map(int key) {
+        File file = new File(directory, fileName(key));
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            MappedByteBuffer slice = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            MappedByteBuffer previous = slices.putIfAbsent(key, slice);
+            return previous != null ? previous : slice;
+        } catch (IOException e) {
+            System.err.println("Could not map tablebase file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+     * Values
+     */
+    static byte win(int distance) {
+        return (byte) distance;
+    }
+
+    static byte loss(int distance) {
+        return (byte) (-distance - 1);
+    }
+
+    static boolean isWin(int value) {
+        return value > 0;
+    }
+
+    static boolean isLoss(int value) {
+        return value < 0;
+    }
+
+    /**
+     * @param value Win or loss value
+     * @return Plies until the game ends
+     */
+    static int distance(int value) {
+        return value > 0 ? value : -value - 1;
+    }
+
+    /*
+     * Slices
+     * A slice key packs its material: red men | red kings << 4 | black men << 8 | black kings << 12
+     */
+    static int sliceKey(int redMen, int redKings, int blackMen, int blackKings) {
+        return redMen | redKings << 4 | blackMen << 8 | blackKings << 12;
+    }
+
+    static int sliceKey(BitBoard position) {
+        return sliceKey(Integer.bitCount(position.red & ~position.kings), Integer.bitCount(position.red & position.kings),
+                Integer.bitCount(position.black & ~position.kings), Integer.bitCount(position.black & position.kings));
+    }
+
+    static int redMen(int key) {
+        return key & 0xF;
+    }
+
+    static int redKings(int key) {
+        return (key >> 4) & 0xF;
+    }
+
+    static int blackMen(int key) {
+        return (key >> 8) & 0xF;
+    }
+
+    static int blackKings(int key) {
+        return (key >> 12) & 0xF;
+    }
+
+    static String fileName(int key) {
+        return redMen(key) + "-" + redKings(key) + "-" + blackMen(key) + "-" + blackKings(key) + ".tb";
+    }
+
+    static String compressedFileName(int key) {
+        return fileName(key) + "c";
+    }
+
+    /**
+     * @param key Slice
+     * @return Number of positions in the slice (for one player to move)
+     */
+    static long sliceSize(int key) {
+        return menPlacements(key, 5) * kingPlacements(key);
+    }
+
+    /**
+     * @param key    Slice
+     * @param blocks Number of row 7 blocks (j = 0 .. blocks - 1) to count
+     * @return Men placements in the first blocks
+     */
+    private static long menPlacements(int key, int blocks) {
+        int redMen = redMen(key), blackMen = blackMen(key);
+        long placements = 0;
+        for (int j = 0; j < blocks && j <= Math.min(4, redMen); j++) {
+            placements += BINOMIAL[4][j] * BINOMIAL[24][redMen - j] * BINOMIAL[28 - (redMen - j)][blackMen];
+        }
+        return placements;
+    }
+
+    private static long kingPlacements(int key) {
+        int free = BitBoard.NUM_SQUARES - redMen(key) - blackMen(key);
+        return BINOMIAL[free][redKings(key)] * BINOMIAL[free - redKings(key)][blackKings(key)];
+    }
+
+    /**
+     * @param position Position (of the slice sliceKey(position))
+     * @return Index of the position in its slice
+     */
+    static long index(BitBoard position) {
+        int key = sliceKey(position);
+        int redMen = position.red & ~position.kings,
+                blackMen = position.black & ~position.kings,
+                redKings = position.red & position.kings,
+                blackKings = position.black & position.kings;
+        int j = Integer.bitCount(redMen & ROW_7);
+        int middleRedMen = redMen(key) - j;
+
+        long index = menPlacements(key, j)
+                + (rank(redMen & ROW_7, ROW_7) * BINOMIAL[24][middleRedMen] + rank(redMen & MIDDLE_ROWS, MIDDLE_ROWS))
+                * BINOMIAL[28 - middleRedMen][blackMen(key)]
+                + rank(blackMen, BLACK_MEN_SQUARES & ~redMen);
+        int free = ~(redMen | blackMen);
+        index = index * BINOMIAL[Integer.bitCount(free)][redKings(key)] + rank(redKings, free);
+        free &= ~redKings;
+        return index * BINOMIAL[Integer.bitCount(free)][blackKings(key)] + rank(blackKings, free);
+    }
+
+    /**
+     * Inverse of index
+     *
+     * @param key   Slice
+     * @param index Index in the slice
+     * @return The position
+     */
+    static BitBoard position(int key, long index) {
+        int free = BitBoard.NUM_SQUARES - redMen(key) - blackMen(key);
+        long blackKingPlacements = BINOMIAL[free - redKings(key)][blackKings(key)],
+                redKingPlacements = BINOMIAL[free][redKings(key)];
+        long blackKingsRank = index % blackKingPlacements;
+        index /= blackKingPlacements;
+        long redKingsRank = index % redKingPlacements;
+        index /= redKingPlacements;
+
+        int j = 0;
+        while (index >= menPlacements(key, j + 1)) {
+            j++;
+        }
+        index -= menPlacements(key, j);
+        int middleRedMen = redMen(key) - j;
+        long blackMenPlacements = BINOMIAL[28 - middleRedMen][blackMen(key)];
+        long blackMenRank = index % blackMenPlacements;
+        index /= blackMenPlacements;
+        long middlePlacements = BINOMIAL[24][middleRedMen];
+
+        int redMen = unrank(index / middlePlacements, j, ROW_7)
+                | unrank(index % middlePlacements, middleRedMen, MIDDLE_ROWS);
+        int blackMen = unrank(blackMenRank, blackMen(key), BLACK_MEN_SQUARES & ~redMen);
+        int redKings = unrank(redKingsRank, redKings(key), ~(redMen | blackMen));
+        int blackKings = unrank(blackKingsRank, blackKings(key), ~(redMen | blackMen | redKings));
+        return new BitBoard(redMen | redKings, blackMen | blackKings, redKings | blackKings);
+    }
+
+    /**
+     * @param subset    Squares of the pieces (all within available)
+     * @param available Squares the pieces may stand on
+     * @return Rank of the subset among all subsets of the same size of available
+     */
+    private static long rank(int subset, int available) {
+        long rank = 0;
+        for (int i = 1; subset != 0; i++) {
+            int bit = Integer.lowestOneBit(subset);
+            subset ^= bit;
+            rank += BINOMIAL[Integer.bitCount(available & (bit - 1))][i];
+        }
+        return rank;
+    }
+
+    /**
+     * Inverse of rank
+     */
+    private static int unrank(long rank, int size, int available) {
+        int subset = 0;
+        for (int i = size; i > 0; i--) {
+            int position = i - 1;
+            while (BINOMIAL[position + 1][i] <= rank) {
+                position++;
+            }
+            rank -= BINOMIAL[position][i];
+            subset |= nthSquare(available, position);
+        }
+        return subset;
+    }
+
+    /**
+     * @return Bit of the n-th (from 0) square of available
+     */
+    private static int nthSquare(int available, int n) {
+        for (int i = 0; i < n; i++) {
+            available &= available - 1;
+        }
+        return Integer.lowestOneBit(available);
+    }
+}
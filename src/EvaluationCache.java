@@ -0,0 +1,71 @@
+import java.util.Arrays;
+
+/**
+ * Evaluation Cache
+ * Direct-mapped table of static evaluations, indexed by Zobrist key (^ Zobrist.sideToMove of the player
+ * the position is evaluated for). A position evaluated again, in a sibling subtree or in the next
+ * iteration, then costs one lookup instead of the whole heuristic.
+ * <p>
+ * Each slot holds the key and the heuristic's value without its random noise,
+ * along with the noise range the heuristic chose for the position (RMIN and RMAX depend on the Hard game stage).
+ * A new position simply overwrites its slot.
+ * <p>
+ * Values only depend on the position, so the cache is kept from one search (and game) to the next.
+ * Every engine and search worker has its own cache: it is not shared between threads.
+ */
+class EvaluationCache {
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] entries; // value (bits 0-31), random min (32-47), random max (48-63)
+    private final int mask;
+    // Set by a successful probe
+    int value, randomMin, randomMax;
+
+    /**
+     * @param sizeInKilobytes Cache size (rounded down to a power of 2 number of entries)
+     */
+    EvaluationCache(int sizeInKilobytes) {
+        long slots = Math.max(1, (long) sizeInKilobytes * 1024 / BYTES_PER_ENTRY);
+        int size = Integer.highestOneBit((int) Math.min(slots, 1 << 26));
+        keys = new long[size];
+        entries = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @param key Position key
+     * @return True if the position is cached (its value and noise range are then in value, randomMin, randomMax)
+     */
+    boolean probe(long key) {
+        int index = (int) key & mask;
+        if (keys[index] != key || key == 0) {
+            // (Empty slots hold key 0)
+            return false;
+        }
+        long entry = entries[index];
+        value = (int) entry;
+        randomMin = (short) (entry >>> 32);
+        randomMax = (short) (entry >>> 48);
+        return true;
+    }
+
+    /**
+     * @param key       Position key
+     * @param value     Heuristic value, without noise
+     * @param randomMin Lower bound of the noise the heuristic adds to the position's value
+     * @param randomMax Upper bound of the noise
+     */
+    void store(long key, int value, int randomMin, int randomMax) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        entries[index] = (value & 0xFFFFFFFFL)
+                | (randomMin & 0xFFFFL) << 32
+                | (randomMax & 0xFFFFL) << 48;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, 0);
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Evaluation State
+ * The parts of the heuristic that only depend on which pieces are on the board, kept up to date
+ * by AI_Heuristic.makeMove/unmakeMove (a move adds and removes a handful of pieces):
+ * - Material: number of each piece type (as AI_Heuristic.pieceCount)
+ * - The men's summed distances to their promotion rows (as AI_Heuristic.meanDistanceToPromotionScore)
+ * The game stage follows from the material.
+ * <p>
+ * Terms that depend on neighbouring tiles (protection, mobility, edges, distances between pieces)
+ * cannot be kept this way. The static methods compute them from the BitBoard masks with a few shifts,
+ * giving the same counts as AI_Heuristic's scans of the 8x8 board.
+ */
+class EvaluationState {
+    private static final int RED = Constants.RED,
+            BLACK = Constants.BLACK;
+    private static final int LAST_ROW = 7;
+
+    // trappedPieceScore looks at one edge tile per row i, and if it is empty at one tile of the back rows:
+    // tile (i, 0) then (0, i) for even i, tile (i, 7) then (7, i) for odd i (the other tiles are light)
+    private static final int[] FIRST_EDGE_SQUARES = {0, 7, 8, 15, 16, 23, 24, 31},
+            SECOND_EDGE_SQUARES = {0, 28, 1, 29, 2, 30, 3, 31};
+
+    final int[] pieceCount = new int[4]; // Red, RED_KING, BLACK, BLACK_KING
+    private int redMenDistance, // Sum of (7 - row) over the red men
+            blackMenDistance; // Sum of (row + 1) over the black men
+
+    /**
+     * @param position Position to count from scratch
+     */
+    void set(BitBoard position) {
+        pieceCount[0] = 0;
+        pieceCount[1] = 0;
+        pieceCount[2] = 0;
+        pieceCount[3] = 0;
+        redMenDistance = 0;
+        blackMenDistance = 0;
+        for (int pieces = position.red | position.black; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            add((position.red & (1 << square)) != 0 ? RED : BLACK, (position.kings & (1 << square)) != 0, square);
+        }
+    }
+
+    void add(int pieceType, boolean king, int square) {
+        update(pieceType, king, square, 1);
+    }
+
+    void remove(int pieceType, boolean king, int square) {
+        update(pieceType, king, square, -1);
+    }
+
+    private void update(int pieceType, boolean king, int square, int sign) {
+        if (pieceType == RED) {
+            if (king) {
+                pieceCount[1] += sign;
+            } else {
+                pieceCount[0] += sign;
+                redMenDistance += sign * BoardGeometry.PROMOTION_DISTANCE[RED][square];
+            }
+        } else if (pieceType == BLACK) {
+            if (king) {
+                pieceCount[3] += sign;
+            } else {
+                pieceCount[2] += sign;
+                blackMenDistance += sign * BoardGeometry.PROMOTION_DISTANCE[BLACK][square];
+            }
+        }
+    }
+
+    /**
+     * @param pieces Filled with: mean distance of the red men to promotion, same for the black men
+     */
+    void meanDistanceToPromotionScore(int[] pieces) {
+        pieces[0] = pieceCount[0] != 0 ? redMenDistance / pieceCount[0] : redMenDistance;
+        pieces[1] = pieceCount[2] != 0 ? blackMenDistance / pieceCount[2] : blackMenDistance;
+    }
+
+    /**
+     * @param player Current player ID
+     * @return As AI_Heuristic.simpleDistanceScore: difference of how far the men have advanced
+     */
+    int simpleDistanceScore(int player) {
+        int red = LAST_ROW * pieceCount[0] - redMenDistance, // Sum of row
+                black = (LAST_ROW + 1) * pieceCount[2] - blackMenDistance; // Sum of (7 - row)
+        return player == RED ? red - black : black - red;
+    }
+
+    /**
+     * @param terms Filled with the terms that only depend on the men (see MenStructureCache)
+     */
+    static void menStructureScore(BitBoard position, int[] terms) {
+        int redMen = position.red & ~position.kings,
+                blackMen = position.black & ~position.kings;
+        // A red man is protected by the men on the row behind it (row + 1), a black man by those on row - 1
+        terms[MenStructureCache.RED_PROTECTED] = Integer.bitCount(BitBoard.southEast(redMen) & redMen)
+                + Integer.bitCount(BitBoard.southWest(redMen) & redMen);
+        terms[MenStructureCache.BLACK_PROTECTED] = Integer.bitCount(BitBoard.northEast(blackMen) & blackMen)
+                + Integer.bitCount(BitBoard.northWest(blackMen) & blackMen);
+        int red = 0, black = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            red += Integer.bitCount(BitBoard.step(redMen, direction) & redMen);
+            black += Integer.bitCount(BitBoard.step(blackMen, direction) & blackMen);
+        }
+        terms[MenStructureCache.RED_SUPPORTED] = red;
+        terms[MenStructureCache.BLACK_SUPPORTED] = black;
+    }
+
+    /**
+     * @param menStructure The position's men structure (see menStructureScore)
+     * @param pieces       Filled with the number of protected pieces of each type (as AI_Heuristic.protectedPiecesScore)
+     */
+    static void protectedPiecesScore(BitBoard position, int[] menStructure, int[] pieces) {
+        int redKings = position.red & position.kings,
+                blackKings = position.black & position.kings;
+        pieces[0] = menStructure[MenStructureCache.RED_PROTECTED];
+        pieces[1] = Integer.bitCount(BitBoard.southEast(redKings) & position.red) + Integer.bitCount(BitBoard.southWest(redKings) & position.red);
+        pieces[2] = menStructure[MenStructureCache.BLACK_PROTECTED];
+        pieces[3] = Integer.bitCount(BitBoard.northEast(blackKings) & position.black) + Integer.bitCount(BitBoard.northWest(blackKings) & position.black);
+    }
+
+    /**
+     * @param pieces Filled with the number of moves of each piece type (as AI_Heuristic.movablePieceScore)
+     */
+    static void movablePieceScore(BitBoard position, int[] pieces) {
+        int empty = position.getEmpty(),
+                redMen = position.red & ~position.kings,
+                blackMen = position.black & ~position.kings,
+                redKings = position.red & position.kings,
+                blackKings = position.black & position.kings;
+        pieces[0] = Integer.bitCount(BitBoard.northEast(redMen) & empty) + Integer.bitCount(BitBoard.northWest(redMen) & empty);
+        pieces[1] = 0;
+        pieces[2] = Integer.bitCount(BitBoard.southEast(blackMen) & empty) + Integer.bitCount(BitBoard.southWest(blackMen) & empty);
+        pieces[3] = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            pieces[1] += Integer.bitCount(BitBoard.step(redKings, direction) & empty);
+            pieces[3] += Integer.bitCount(BitBoard.step(blackKings, direction) & empty);
+        }
+    }
+
+    /**
+     * @param pieces Filled with the open tiles of each promotion row, light tiles included
+     *               (as AI_Heuristic.promotionRowScore): row 7 (RED's), row 0 (BLACK's)
+     */
+    static void promotionRowScore(BitBoard position, int[] pieces) {
+        int empty = position.getEmpty();
+        pieces[0] = 4 + Integer.bitCount(empty & BitBoard.ROW_7);
+        pieces[1] = 4 + Integer.bitCount(empty & BitBoard.ROW_0);
+    }
+
+    /**
+     * @param pieces Filled with the number of edge pieces of each type (as AI_Heuristic.trappedPieceScore)
+     */
+    static void trappedPieceScore(BitBoard position, int[] pieces) {
+        int occupied = position.red | position.black,
+                edge = 0;
+        for (int i = 0; i < FIRST_EDGE_SQUARES.length; i++) {
+            int first = 1 << FIRST_EDGE_SQUARES[i];
+            edge |= (occupied & first) != 0 ? first : occupied & (1 << SECOND_EDGE_SQUARES[i]);
+        }
+        pieces[0] = Integer.bitCount(edge & position.red & ~position.kings);
+        pieces[1] = Integer.bitCount(edge & position.red & position.kings);
+        pieces[2] = Integer.bitCount(edge & position.black & ~position.kings);
+        pieces[3] = Integer.bitCount(edge & position.black & position.kings);
+    }
+
+    /**
+     * @param pieces Filled with the mean distance of the red kings to the black pieces,
+     *               and of the black kings to the red pieces (as AI_Heuristic.meanDistanceScore)
+     */
+    static void meanDistanceScore(BitBoard position, int[] pieces) {
+        pieces[0] = meanDistance(position.red & position.kings, position.black);
+        pieces[1] = meanDistance(position.black & position.kings, position.red);
+    }
+
+    /*
+     * Same arithmetic as meanDistanceScore always had: the sum of squared distances runs on over
+     * each king's pieces (in board order), and the root of every step of it is counted
+     */
+    private static int meanDistance(int kings, int pieces) {
+        int total = 0, count = 0;
+        for (int k = kings; k != 0; k &= k - 1) {
+            int[] distance = BoardGeometry.SQUARED_DISTANCE[Integer.numberOfTrailingZeros(k)];
+            int sum = 0;
+            for (int p = pieces; p != 0; p &= p - 1) {
+                sum += distance[Integer.numberOfTrailingZeros(p)];
+                total += BoardGeometry.ROOT[sum];
+                count++;
+            }
+        }
+        return count != 0 ? total / count : 0;
+    }
+
+    /**
+     * @return As AI_Heuristic.advancedDistanceScore
+     */
+    static int advancedDistanceScore(BitBoard position, int player) {
+        int red = advancedDistance(position.red & position.kings, position.black & ~position.kings),
+                black = advancedDistance(position.black & position.kings, position.red & ~position.kings);
+        return player == RED ? red - black : black - red;
+    }
+
+    /*
+     * advancedDistanceScore raises each distance sum to the power (1 / norm), an integer division:
+     * every king and man pair counts as 1, so their mean is 1 as soon as there is one pair
+     */
+    private static int advancedDistance(int kings, int men) {
+        return kings != 0 && men != 0 ? 1 : 0;
+    }
+
+    /**
+     * @param menStructure The position's men structure (see menStructureScore)
+     * @return As AI_Heuristic.protectedPieceScore: difference of men with a man of their own color diagonally next to them
+     */
+    static int protectedPieceScore(int[] menStructure, int player) {
+        int red = menStructure[MenStructureCache.RED_SUPPORTED],
+                black = menStructure[MenStructureCache.BLACK_SUPPORTED];
+        return player == RED ? red - black : black - red;
+    }
+
+    /**
+     * @return As AI_Heuristic.possibleJumpsScore: difference of the jumps each player could make
+     */
+    static int possibleJumpsScore(BitBoard position, int player) {
+        int empty = position.getEmpty();
+        int red = 0, black = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            boolean north = direction >= 2; // Men only jump forward: RED north, BLACK south
+            int redJumpers = north ? position.red : position.red & position.kings,
+                    blackJumpers = north ? position.black & position.kings : position.black;
+            red += Integer.bitCount(BitBoard.step(BitBoard.step(redJumpers, direction) & position.black, direction) & empty);
+            black += Integer.bitCount(BitBoard.step(BitBoard.step(blackJumpers, direction) & position.red, direction) & empty);
+        }
+        return player == RED ? red - black : black - red;
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.Arrays;
+
+/**
+ * Fused Evaluator
+ * The Hard difficulty heuristic (AI_Heuristic.hardScore) computed in one pass over the pieces.
+ * Every feature the stage weights C1-C15 apply to is collected into one int array,
+ * then the weights of the game stage are applied to it.
+ * Gives the same scores as AI_Heuristic.evaluateHeuristic(Piece[][], int) on Hard.
+ * <p>
+ * Features (RED, BLACK order as in AI_Heuristic's scores):
+ * - Pieces:                red men, red kings, black men, black kings
+ * - Protected pieces:      same order (a piece backed up by its own pieces on the row behind it)
+ * - Movable pieces:        same order (moves to empty tiles)
+ * - Promotion distance:    mean distance of red men, black men to their promotion row
+ * - Open promotion row:    empty tiles of row 7, row 0 (light tiles included)
+ * - Mean distance:         mean distance of red kings to black pieces, of black kings to red pieces
+ * - Edge pieces:           same order as pieces (see AI_Heuristic.trappedPieceScore)
+ */
+class FusedEvaluator {
+    static final int PIECES = 0,
+            PROTECTED = 4,
+            MOVABLE = 8,
+            PROMOTION_DISTANCE = 12,
+            OPEN_PROMOTION_ROW = 14,
+            MEAN_DISTANCE = 16,
+            EDGE = 18,
+            FEATURES = 22;
+    private static final int RED_MAN = 0, RED_KING = 1, BLACK_MAN = 2, BLACK_KING = 3;
+    private static final int LAST_ROW = 7;
+
+    // Weight indices: C1 - C15 of hardScore
+    private static final int C1 = 0, C2 = 1, C3 = 2, C4 = 3, C5 = 4, C6 = 5, C7 = 6, C8 = 7,
+            C9 = 8, C10 = 9, C11 = 10, C12 = 11, C13 = 12, C14 = 13, C15 = 14;
+
+    // trappedPieceScore counts one tile per row i: (i, 0) or (i, 7), and only if that one is empty (0, i) or (7, i).
+    // For each square: the tile that has to be empty for it to count (itself if it always counts), -1 if it never counts
+    private static final int[] EDGE_SQUARE = new int[BitBoard.NUM_SQUARES];
+    // Squares whose pieces can count as edge pieces
+    private static final int EDGE_SQUARES;
+
+    static {
+        Arrays.fill(EDGE_SQUARE, -1);
+        int[] first = {0, 7, 8, 15, 16, 23, 24, 31},
+                second = {0, 28, 1, 29, 2, 30, 3, 31};
+        int edgeSquares = 0;
+        for (int i = 0; i < first.length; i++) {
+            EDGE_SQUARE[second[i]] = first[i];
+            EDGE_SQUARE[first[i]] = first[i];
+            edgeSquares |= 1 << first[i] | 1 << second[i];
+        }
+        EDGE_SQUARES = edgeSquares;
+    }
+
+    private final int[][] stageWeights; // [stage][C1 - C15]
+    private final int[] randomRange; // [stage] noise added to the score is in [-range, range]
+    final int[] features = new int[FEATURES];
+    // Set by bound
+    int lowerBound, upperBound;
+
+    /**
+     * @param pawnValue Value of a man (AI_Heuristic.PAWN_PIECE)
+     * @param kingValue Value of a king (AI_Heuristic.KING)
+     */
+    FusedEvaluator(int pawnValue, int kingValue) {
+        int P = pawnValue, K = kingValue;
+        stageWeights = new int[][]{
+                // Beginning: no C11 - C15 terms
+                {P * 2 / 7, K * 2 / 7, P * 3 / 4, K * 3 / 4, P * 10 / 13, K * 10 / 13, P * 3 / 11, -P * 2 / 19,
+                        P, K, 0, 0, 0, 0, 0},
+                // Kings
+                {P * 2 / 5, K * 2 / 5, P * 5 / 8, K * 3 / 8, 0, K * 2 / 5, P * 5 / 7, P * 3 / 7,
+                        P, K, -K / 2, P / 2, -K / 2, -P, -K},
+                // Ending
+                {P * 2 / 31, K * 2 / 33, P * 1 / 4, K * 1 / 4, P * 2 / 19, K / 3, P / 3, 0,
+                        P, K, 0, 0, 0, -P, -K}};
+        randomRange = new int[]{P * 1 / 10, P * 2 / 10, P * 3 / 10};
+    }
+
+    /**
+     * Collects every feature of the position into features, in one pass over its pieces
+     *
+     * @param position     Position to evaluate
+     * @param menStructure The position's men structure (see EvaluationState.menStructureScore)
+     */
+    void collect(BitBoard position, int[] menStructure) {
+        int[] f = features;
+        Arrays.fill(f, 0);
+        f[OPEN_PROMOTION_ROW] = 8;
+        f[OPEN_PROMOTION_ROW + 1] = 8;
+        int red = position.red, black = position.black, kings = position.kings,
+                occupied = red | black, empty = ~occupied;
+        int redDistanceTotal = 0, redDistanceCount = 0, blackDistanceTotal = 0, blackDistanceCount = 0;
+
+        for (int pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            int bit = 1 << square;
+            int row = BitBoard.rowOf(square);
+            int north = BoardGeometry.NORTH[square], south = BoardGeometry.SOUTH[square];
+            int type;
+            if ((red & bit) != 0) {
+                if ((kings & bit) == 0) {
+                    type = RED_MAN;
+                    f[MOVABLE + type] += Integer.bitCount(north & empty);
+                    f[PROMOTION_DISTANCE] += BoardGeometry.PROMOTION_DISTANCE[Constants.RED][square];
+                } else {
+                    type = RED_KING;
+                    f[PROTECTED + type] += Integer.bitCount(south & red);
+                    f[MOVABLE + type] += Integer.bitCount((north | south) & empty);
+                    redDistanceTotal += distances(square, black);
+                    redDistanceCount += Integer.bitCount(black);
+                }
+            } else {
+                if ((kings & bit) == 0) {
+                    type = BLACK_MAN;
+                    f[MOVABLE + type] += Integer.bitCount(south & empty);
+                    f[PROMOTION_DISTANCE + 1] += BoardGeometry.PROMOTION_DISTANCE[Constants.BLACK][square];
+                } else {
+                    type = BLACK_KING;
+                    f[PROTECTED + type] += Integer.bitCount(north & black);
+                    f[MOVABLE + type] += Integer.bitCount((north | south) & empty);
+                    blackDistanceTotal += distances(square, red);
+                    blackDistanceCount += Integer.bitCount(red);
+                }
+            }
+            f[PIECES + type]++;
+            if (row == LAST_ROW) {
+                f[OPEN_PROMOTION_ROW]--;
+            } else if (row == 0) {
+                f[OPEN_PROMOTION_ROW + 1]--;
+            }
+            int edgeSquare = EDGE_SQUARE[square];
+            if (edgeSquare == square || (edgeSquare >= 0 && (occupied & (1 << edgeSquare)) == 0)) {
+                f[EDGE + type]++;
+            }
+        }
+
+        f[PROTECTED + RED_MAN] = menStructure[MenStructureCache.RED_PROTECTED];
+        f[PROTECTED + BLACK_MAN] = menStructure[MenStructureCache.BLACK_PROTECTED];
+        if (f[PIECES + RED_MAN] != 0) {
+            f[PROMOTION_DISTANCE] /= f[PIECES + RED_MAN];
+        }
+        if (f[PIECES + BLACK_MAN] != 0) {
+            f[PROMOTION_DISTANCE + 1] /= f[PIECES + BLACK_MAN];
+        }
+        f[MEAN_DISTANCE] = redDistanceCount != 0 ? redDistanceTotal / redDistanceCount : 0;
+        f[MEAN_DISTANCE + 1] = blackDistanceCount != 0 ? blackDistanceTotal / blackDistanceCount : 0;
+    }
+
+    /*
+     * Sum of one king's distances to the opponent's pieces, with meanDistanceScore's arithmetic:
+     * the sum of squared distances runs on over the pieces (in board order), and every step of it is counted
+     */
+    private static int distances(int king, int pieces) {
+        int[] distance = BoardGeometry.SQUARED_DISTANCE[king];
+        int total = 0, sum = 0;
+        for (int p = pieces; p != 0; p &= p - 1) {
+            sum += distance[Integer.numberOfTrailingZeros(p)];
+            total += BoardGeometry.ROOT[sum];
+        }
+        return total;
+    }
+
+    /**
+     * Applies the stage weights to the features of the last collect
+     *
+     * @param playerID     Current Player's Game ID
+     * @param currentStage Game stage (see AI_Heuristic.stageOf, which can be given features: it starts with the pieces)
+     * @return Relative Game Board Value
+     */
+    int score(int playerID, int currentStage) {
+        int[] f = features;
+        int[] w = stageWeights[currentStage];
+        int difference = w[C1] * (f[PIECES + RED_MAN] - f[PIECES + BLACK_MAN])
+                + w[C2] * (f[PIECES + RED_KING] - f[PIECES + BLACK_KING])
+                + w[C3] * (f[PROTECTED + RED_MAN] - f[PROTECTED + BLACK_MAN])
+                + w[C4] * (f[PROTECTED + RED_KING] - f[PROTECTED + BLACK_KING])
+                + w[C5] * (f[MOVABLE + RED_MAN] - f[MOVABLE + BLACK_MAN])
+                + w[C6] * (f[MOVABLE + RED_KING] - f[MOVABLE + BLACK_KING])
+                + w[C7] * (f[PROMOTION_DISTANCE] - f[PROMOTION_DISTANCE + 1])
+                + w[C8] * (f[OPEN_PROMOTION_ROW] - f[OPEN_PROMOTION_ROW + 1])
+                + w[C12] * (f[EDGE + RED_MAN] - f[EDGE + BLACK_MAN])
+                + w[C13] * (f[EDGE + RED_KING] - f[EDGE + BLACK_KING]);
+        int isRed = playerID == Constants.RED ? 1 : -1;
+        // As in hardScore, the weighted differences only decide (through "+ isRed == 1")
+        // which side's values are returned
+        if (isRed * difference + isRed == 1) {
+            return w[C9] * f[PIECES + RED_MAN] + w[C10] * f[PIECES + RED_KING] + w[C11] * f[MEAN_DISTANCE]
+                    + w[C14] * f[EDGE + RED_MAN] + w[C15] * f[EDGE + RED_KING];
+        }
+        return w[C9] * f[PIECES + BLACK_MAN] + w[C10] * f[PIECES + BLACK_KING] + w[C11] * f[MEAN_DISTANCE + 1]
+                + w[C14] * f[EDGE + BLACK_MAN] + w[C15] * f[EDGE + BLACK_KING];
+    }
+
+    /**
+     * Bounds of score (for either player) that only need the masks, without collecting the features.
+     * The score is one side's material plus its mean distance and edge terms, whose weights (C11, C14, C15)
+     * are never positive: a side scores at most its material, and at least its material with every piece
+     * on EDGE_SQUARES counted as an edge piece and its kings at the largest mean distance
+     * (the root of the opponent's pieces times the largest squared distance).
+     *
+     * @param position     Position to evaluate
+     * @param currentStage Game stage (see AI_Heuristic.stageOf)
+     */
+    void bound(BitBoard position, int currentStage) {
+        int[] w = stageWeights[currentStage];
+        int redMen = position.red & ~position.kings, redKings = position.red & position.kings,
+                blackMen = position.black & ~position.kings, blackKings = position.black & position.kings;
+        int red = w[C9] * Integer.bitCount(redMen) + w[C10] * Integer.bitCount(redKings),
+                black = w[C9] * Integer.bitCount(blackMen) + w[C10] * Integer.bitCount(blackKings);
+        upperBound = Math.max(red, black);
+        lowerBound = Math.min(red + penalty(w, redMen, redKings, position.black),
+                black + penalty(w, blackMen, blackKings, position.red));
+    }
+
+    /*
+     * Lowest mean distance and edge terms one side can score
+     */
+    private static int penalty(int[] w, int men, int kings, int opponent) {
+        int meanDistance = kings != 0
+                ? BoardGeometry.ROOT[Integer.bitCount(opponent) * BoardGeometry.MAX_SQUARED_DISTANCE] : 0;
+        return w[C11] * meanDistance
+                + w[C14] * Integer.bitCount(men & EDGE_SQUARES)
+                + w[C15] * Integer.bitCount(kings & EDGE_SQUARES);
+    }
+
+    /**
+     * @param currentStage Game stage
+     * @return Range of the random noise added to the stage's scores (RMAX, RMIN = -RMAX)
+     */
+    int randomRange(int currentStage) {
+        return randomRange[currentStage];
+    }
+}
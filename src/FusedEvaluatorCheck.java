@@ -0,0 +1,77 @@
+import java.util.Random;
+
+/**
+ * Fused Evaluator Check
+ * Plays random (seeded) games with BitBoard.makeMove / unmakeMove and checks that every position reached,
+ * on the way down and again once its moves are taken back, is scored by FusedEvaluator exactly like
+ * the Hard level's board scan (evaluateHeuristic(Piece[][], int)), for both players.
+ * <p>
+ * Usage: java FusedEvaluatorCheck [games] [seed]
+ */
+class FusedEvaluatorCheck {
+    private static final int MAX_PLIES = 200; // Games with kings can go on forever
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20240101L;
+        CheckersData startPosition = new CheckersData();
+        AI_Heuristic computerPlayer = new AI_Heuristic(Constants.RED, Constants.difficulty_Hard,
+                startPosition.gamePieces, Constants.defaultNumRowsAndColumns);
+        Random random = new Random(seed);
+        int[][] moves = new int[MAX_PLIES][MoveOrdering.MAX_MOVES * PackedMove.SIZE];
+        int[] playedMoves = new int[MAX_PLIES];
+        UndoRecord[] undoRecords = new UndoRecord[MAX_PLIES];
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            undoRecords[ply] = new UndoRecord();
+        }
+
+        long positions = 0;
+        for (int game = 0; game < games; game++) {
+            BitBoard start = new BitBoard(startPosition.gamePieces);
+            BitBoard position = new BitBoard(start.red, start.black, start.kings);
+            int player = Constants.RED;
+            int plies = 0;
+            while (true) {
+                check(computerPlayer, position, game, plies);
+                positions++;
+                int moveCount = plies < MAX_PLIES ? position.generateMoves(player, moves[plies]) : 0;
+                if (moveCount == 0) {
+                    break;
+                }
+                int move = random.nextInt(moveCount) * PackedMove.SIZE;
+                position.makeMove(moves[plies][move], moves[plies][move + 1], undoRecords[plies]);
+                playedMoves[plies++] = move;
+                player = player == Constants.RED ? Constants.BLACK : Constants.RED;
+            }
+            while (plies > 0) {
+                plies--;
+                position.unmakeMove(moves[plies][playedMoves[plies]], undoRecords[plies]);
+                check(computerPlayer, position, game, plies);
+                positions++;
+            }
+            if (position.red != start.red || position.black != start.black || position.kings != start.kings) {
+                throw new IllegalStateException("Game " + game + ": unmakeMove did not restore the start position");
+            }
+        }
+        System.out.println(positions + " positions of " + games + " games: FusedEvaluator matches the board scan");
+    }
+
+    /**
+     * @param computerPlayer Hard computer player scoring the position
+     * @param position       Position to check
+     * @param game           Game being played (for the failure message)
+     * @param ply            Ply of the position (for the failure message)
+     */
+    private static void check(AI_Heuristic computerPlayer, BitBoard position, int game, int ply) {
+        for (int playerID = Constants.RED; playerID <= Constants.BLACK; playerID++) {
+            int expected = computerPlayer.boardScanScore(position, playerID),
+                    actual = computerPlayer.fusedScore(position, playerID);
+            if (actual != expected) {
+                throw new IllegalStateException("Game " + game + " ply " + ply + " player " + playerID
+                        + ": FusedEvaluator scored " + actual + ", the board scan " + expected
+                        + " (red " + Integer.toHexString(position.red) + " black " + Integer.toHexString(position.black)
+                        + " kings " + Integer.toHexString(position.kings) + ")");
+            }
+        }
+    }
+}
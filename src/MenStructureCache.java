@@ -0,0 +1,68 @@
+/**
+ * Men Structure Cache
+ * Like a pawn hash in chess: the terms of the heuristic that only depend on where the men stand,
+ * cached by the men's configuration. Once kings are on the board most moves are king moves,
+ * so the positions below them keep the same men and hit the same entry.
+ * <p>
+ * Cached terms (see EvaluationState.menStructureScore):
+ * - RED_PROTECTED, BLACK_PROTECTED:  men backed up by men of their color on the row behind
+ *                                    (the men entries of AI_Heuristic.protectedPiecesScore)
+ * - RED_SUPPORTED, BLACK_SUPPORTED:  men with a man of their color on a diagonal next to them
+ *                                    (the two sides of AI_Heuristic.protectedPieceScore)
+ * Mobility and edge terms also depend on the kings (through the empty tiles), so they are not cached.
+ * <p>
+ * The key is the men's masks themselves (red men << 32 | black men), so a hit is never another configuration.
+ * Slots are picked by hashing the key. Every engine and search worker has its own cache.
+ */
+class MenStructureCache {
+    static final int RED_PROTECTED = 0,
+            BLACK_PROTECTED = 1,
+            RED_SUPPORTED = 2,
+            BLACK_SUPPORTED = 3,
+            TERMS = 4;
+    private static final int BYTES_PER_ENTRY = 12;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys;
+    private final int[] entries; // One byte per term
+    private final int indexShift;
+
+    /**
+     * @param sizeInKilobytes Cache size (rounded down to a power of 2 number of entries)
+     */
+    MenStructureCache(int sizeInKilobytes) {
+        long slots = Math.max(2, (long) sizeInKilobytes * 1024 / BYTES_PER_ENTRY);
+        int size = Integer.highestOneBit((int) Math.min(slots, 1 << 26));
+        keys = new long[size];
+        entries = new int[size];
+        indexShift = 64 - Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Fills terms with the position's men structure, computing and storing it if it is not cached.
+     * (An empty slot holds key 0 and no terms, which is right for a position without men.)
+     *
+     * @param position Position to look up
+     * @param terms    Filled with the cached terms (RED_PROTECTED ... BLACK_SUPPORTED)
+     * @return True if the terms were cached
+     */
+    boolean probe(BitBoard position, int[] terms) {
+        long key = (long) (position.red & ~position.kings) << 32 | (position.black & ~position.kings) & 0xFFFFFFFFL;
+        int index = (int) ((key * HASH_MULTIPLIER) >>> indexShift);
+        if (keys[index] == key) {
+            int entry = entries[index];
+            for (int term = 0; term < TERMS; term++) {
+                terms[term] = (entry >>> (8 * term)) & 0xFF;
+            }
+            return true;
+        }
+        EvaluationState.menStructureScore(position, terms);
+        int entry = 0;
+        for (int term = 0; term < TERMS; term++) {
+            entry |= terms[term] << (8 * term);
+        }
+        keys[index] = key;
+        entries[index] = entry;
+        return false;
+    }
+}
@@ -1,10 +1,16 @@
 /**
  * Move object representing possible moves.
  * (Evaluation of legality happens elsewhere)
+ * <p>
+ * A multi-jump (several successive jumps by one piece) can be stored as a single move.
+ * It then records every tile the piece lands on; the jumped pieces lie halfway between them.
  */
 class Move {
+    static final int MAX_JUMPS = 12; // One jump per opponent piece at most
+
     int fromRow, fromCol;  // Current piece's position
-    int toRow, toCol;      // Tile to which the piece moves
+    int toRow, toCol;      // Tile to which the piece moves (the last landing tile of a multi-jump)
+    private int[] pathRows, pathCols; // Multi-jumps only: tiles visited, starting at (fromRow, fromCol)
 
     /**
      * Move (object) stores game piece moves.
@@ -22,10 +28,81 @@ class Move {
         this.toCol = newColumn;
     }
 
+    /**
+     * Multi-jump move
+     *
+     * @param pathRows Rows of the tiles visited, starting with the piece's current row
+     * @param pathCols Columns of the tiles visited, starting with the piece's current column
+     */
+    Move(int[] pathRows, int[] pathCols) {
+        this(pathRows[0], pathCols[0], pathRows[pathRows.length - 1], pathCols[pathCols.length - 1]);
+        this.pathRows = pathRows;
+        this.pathCols = pathCols;
+    }
+
     // Check if move is a jump (assume jump is legal).
     // Non-jump moves only move diagonally 1 tile at a time
     boolean isJump() {
-        return Math.abs(fromRow - toRow) == 2;
+        return pathRows != null || Math.abs(fromRow - toRow) == 2;
     }
-}
 
+    boolean isMultiJump() {
+        return pathRows != null;
+    }
+
+    /**
+     * @return Number of pieces the move captures
+     */
+    int getNumberOfJumps() {
+        if (pathRows != null) {
+            return pathRows.length - 1;
+        }
+        return isJump() ? 1 : 0;
+    }
+
+    /**
+     * @param jump Index of the jump (0 - first jump)
+     * @return Row of the piece captured by the jump
+     */
+    int getCapturedRow(int jump) {
+        return pathRows == null ? (fromRow + toRow) / 2 : (pathRows[jump] + pathRows[jump + 1]) / 2;
+    }
+
+    /**
+     * @param jump Index of the jump (0 - first jump)
+     * @return Column of the piece captured by the jump
+     */
+    int getCapturedCol(int jump) {
+        return pathCols == null ? (fromCol + toCol) / 2 : (pathCols[jump] + pathCols[jump + 1]) / 2;
+    }
+
+    /**
+     * @param row Board row
+     * @return True if the piece lands on the row at any point of the move
+     */
+    boolean landsOnRow(int row) {
+        if (pathRows == null) {
+            return toRow == row;
+        }
+        for (int i = 1; i < pathRows.length; i++) {
+            if (pathRows[i] == row) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The move split into its single jumps (the move itself if it is not a multi-jump)
+     */
+    Move[] getJumps() {
+        if (pathRows == null) {
+            return new Move[]{this};
+        }
+        Move[] jumps = new Move[pathRows.length - 1];
+        for (int i = 0; i < jumps.length; i++) {
+            jumps[i] = new Move(pathRows[i], pathCols[i], pathRows[i + 1], pathCols[i + 1]);
+        }
+        return jumps;
+    }
+}
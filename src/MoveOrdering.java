@@ -0,0 +1,170 @@
+import java.util.Arrays;
+
+/**
+ * Move Ordering
+ * Alpha-Beta prunes the most when the best move is searched first.
+ * Moves are tried in this order:
+ * 1. Hash move     -   Best move stored in the transposition table (the previous iteration's PV move)
+ * 2. Killer moves  -   Quiet moves that caused a cutoff at the same ply in a sibling subtree
+ * 3. Other moves   -   Sorted by history score (how deep the search was whenever
+ *                      a move between the same from/to tiles caused a cutoff)
+ * <p>
+ * Each stage counts the cutoffs it produced, so we can see what it is worth.
+ */
+class MoveOrdering {
+    static final int HASH_STAGE = 0,
+            KILLER_STAGE = 1,
+            HISTORY_STAGE = 2;
+    static final String[] stageNames = {"Hash", "Killer", "History"};
+    static final int MAX_MOVES = 64; // More than the legal moves of any checkers position
+
+    private static final int KILLERS_PER_PLY = 2;
+    private static final int HASH_MOVE_SCORE = Integer.MAX_VALUE,
+            KILLER_MOVE_SCORE = HASH_MOVE_SCORE - 1 - KILLERS_PER_PLY, // First killer scores highest
+            MAX_HISTORY_SCORE = 1 << 20; // History scores are halved once one reaches this
+
+    private final int[][] killers; // [ply][slot] packed moves (TranspositionTable.packMove)
+    private final int[][] history = new int[BitBoard.NUM_SQUARES][BitBoard.NUM_SQUARES]; // [from][to]
+    private final int[][] moveScores; // [ply][move] scores of the last ordered list of each ply
+    private final long[] cutoffs = new long[stageNames.length];
+
+    /**
+     * @param maxPly Deepest ply the search can reach
+     */
+    MoveOrdering(int maxPly) {
+        killers = new int[maxPly + 1][KILLERS_PER_PLY];
+        moveScores = new int[maxPly + 1][MAX_MOVES];
+        clear();
+    }
+
+    /**
+     * Sorts the moves (in place) into the order they should be searched.
+     *
+     * @param moves    Legal moves of the position (packed, see PackedMove)
+     * @param count    Number of moves
+     * @param ply      Ply of the position
+     * @param hashMove Packed transposition table move, or TranspositionTable.NO_MOVE
+     */
+    void orderMoves(int[] moves, int count, int ply, int hashMove) {
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = PackedMove.squares(moves[i * PackedMove.SIZE]);
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_MOVE_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_MOVE_SCORE;
+            } else {
+                scores[i] = history[move & 31][move >>> 5];
+            }
+        }
+
+        // Insertion sort (highest score first), move lists are short
+        for (int i = 1; i < count; i++) {
+            int move = moves[i * PackedMove.SIZE], captured = moves[i * PackedMove.SIZE + 1];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[(j + 1) * PackedMove.SIZE] = moves[j * PackedMove.SIZE];
+                moves[(j + 1) * PackedMove.SIZE + 1] = moves[j * PackedMove.SIZE + 1];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[(j + 1) * PackedMove.SIZE] = move;
+            moves[(j + 1) * PackedMove.SIZE + 1] = captured;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Records a beta cutoff caused by the index-th move of the ply's last ordered list.
+     * Quiet (non-jump) moves become killers of the ply and gain history.
+     *
+     * @param move     The move that caused the cutoff (packed)
+     * @param captured Pieces it captures
+     * @param index    Its index in the ordered list
+     * @param ply      Ply of the position
+     * @param depth    Remaining depth of the position
+     */
+    void cutoff(int move, int captured, int index, int ply, int depth) {
+        int score = moveScores[ply][index];
+        cutoffs[score == HASH_MOVE_SCORE ? HASH_STAGE : score >= KILLER_MOVE_SCORE ? KILLER_STAGE : HISTORY_STAGE]++;
+
+        if (captured != 0) {
+            return;
+        }
+        int packed = PackedMove.squares(move);
+        if (killers[ply][0] != packed) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = packed;
+        }
+        int from = packed & 31, to = packed >>> 5;
+        history[from][to] += depth * depth;
+        if (history[from][to] >= MAX_HISTORY_SCORE) {
+            for (int[] scores : history) {
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called before each search: killers belong to the plies of the previous root, so they are forgotten,
+     * history is halved (it still says which moves were good), and the cutoff counts restart.
+     */
+    void age() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, TranspositionTable.NO_MOVE);
+        }
+        for (int[] scores : history) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] /= 2;
+            }
+        }
+        Arrays.fill(cutoffs, 0);
+    }
+
+    /**
+     * Forgets killers, history and cutoff counts
+     */
+    void clear() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, TranspositionTable.NO_MOVE);
+        }
+        for (int[] scores : history) {
+            Arrays.fill(scores, 0);
+        }
+        Arrays.fill(cutoffs, 0);
+    }
+
+    /**
+     * Adds another move ordering's cutoff counts to these (a search worker's, when it is returned)
+     *
+     * @param other Move ordering whose cutoffs were counted
+     */
+    void addCutoffs(MoveOrdering other) {
+        for (int stage = 0; stage < cutoffs.length; stage++) {
+            cutoffs[stage] += other.cutoffs[stage];
+        }
+    }
+
+    /**
+     * Restarts the cutoff counts, keeping killers and history
+     */
+    void clearCutoffs() {
+        Arrays.fill(cutoffs, 0);
+    }
+
+    /**
+     * @return Cutoffs per stage, e.g. "Hash: 10 Killer: 5 History: 2"
+     */
+    String cutoffReport() {
+        StringBuilder report = new StringBuilder();
+        for (int stage = 0; stage < stageNames.length; stage++) {
+            report.append(stage == 0 ? "" : " ").append(stageNames[stage]).append(": ").append(cutoffs[stage]);
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opening Book
+ * Moves to play in the first plies of the game, built by OpeningBookBuilder.
+ * <p>
+ * File Layout:
+ * - int:   MAGIC
+ * - RECORD_SIZE byte records, sorted by position key (signed), each holding:
+ *   - long:  Position key (Zobrist key ^ Zobrist.sideToMove of the player to move)
+ *   - int:   Move's tiles, packed as in TranspositionTable.packMove
+ *   - int:   Move's captured pieces (PackedMove.capturedOf: two jump sequences can share their tiles)
+ *   - int:   Weight (points the move scored in the games it was played in)
+ * <p>
+ * The file is memory-mapped and the position's records are found by binary search,
+ * so looking up a move costs a few page reads and no search at all.
+ */
+class OpeningBook {
+    static final int MAGIC = 0x4F424B32; // "OBK2"
+    static final int HEADER_SIZE = 4;
+    static final int RECORD_SIZE = 20;
+
+    private static final ConcurrentHashMap<String, OpeningBook> openBooks = new ConcurrentHashMap<>();
+
+    private final MappedByteBuffer records;
+    private final int recordCount;
+
+    private OpeningBook(MappedByteBuffer records) {
+        this.records = records;
+        this.recordCount = (records.capacity() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * Books are shared by every AI, each file is only mapped once.
+     *
+     * @param fileName File written by OpeningBookBuilder
+     * @return The book, or null if the file does not exist
+     */
+    static OpeningBook open(String fileName) {
+        File file = new File(fileName);
+        if (!file.isFile()) {
+            return null;
+        }
+        return openBooks.computeIfAbsent(file.getAbsolutePath(), path -> {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                 FileChannel channel = randomAccessFile.getChannel()) {
+                if (channel.size() < HEADER_SIZE || randomAccessFile.readInt() != MAGIC) {
+                    // (Books of the older format, without captured pieces, have no MAGIC)
+                    System.err.println("Not an opening book (rebuild it with OpeningBookBuilder): " + file);
+                    return null;
+                }
+                return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (IOException e) {
+                System.err.println("Could not map opening book " + file + ": " + e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Picks one of the position's book moves at random, in proportion to their weights.
+     *
+     * @param key        Position key (Zobrist key ^ Zobrist.sideToMove(playerID))
+     * @param legalMoves Legal moves of the position (book moves are returned as one of them)
+     * @return A book move, or null if the position is not in the book (or the move picked is not one of legalMoves)
+     */
+    Move lookup(long key, Move[] legalMoves) {
+        int first = firstRecord(key);
+        int totalWeight = 0;
+        for (int record = first; record < recordCount && keyOf(record) == key; record++) {
+            totalWeight += weightOf(record);
+        }
+        if (totalWeight <= 0) {
+            return null;
+        }
+
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int record = first; record < recordCount && keyOf(record) == key; record++) {
+            pick -= weightOf(record);
+            if (pick < 0) {
+                return PackedMove.toMove(moveOf(record), capturedOf(record), legalMoves);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Index of the first record whose key is not less than key (binary search)
+     */
+    private int firstRecord(long key) {
+        int low = 0, high = recordCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyOf(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyOf(int record) {
+        return records.getLong(HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    private int moveOf(int record) {
+        return records.getInt(HEADER_SIZE + record * RECORD_SIZE + 8);
+    }
+
+    private int capturedOf(int record) {
+        return records.getInt(HEADER_SIZE + record * RECORD_SIZE + 12);
+    }
+
+    private int weightOf(int record) {
+        return records.getInt(HEADER_SIZE + record * RECORD_SIZE + 16);
+    }
+}
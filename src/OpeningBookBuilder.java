@@ -0,0 +1,213 @@
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Opening Book Builder
+ * Plays the AI against itself (and/or reads imported games), then writes the moves played
+ * in the first plies of those games as an OpeningBook file.
+ * A move's weight is the points it scored for the player who made it: 2 per win, 1 per draw.
+ * <p>
+ * Imported games: one game per line, moves separated by spaces, each move written as its tiles,
+ * e.g. "5,0-4,1" or "2,3-4,5-6,7" for a multi-jump. An optional last token (RED, BLACK or DRAW)
+ * gives the result; otherwise the game is won by the last player to move if the other
+ * player has no legal moves, and drawn if not. Lines starting with # are ignored.
+ * <p>
+ * Usage: java OpeningBookBuilder [games] [plies] [book file] [difficulty] [depth] [imported games file]
+ */
+class OpeningBookBuilder {
+    private static final int WIN_POINTS = 2, DRAW_POINTS = 1;
+    private static final int MAX_GAME_PLIES = 200; // Self-play games longer than this are drawn
+
+    private final int bookPlies;
+    // key -> (move -> weight), moves keyed by captured pieces << 32 | tiles (see bookMove)
+    private final TreeMap<Long, HashMap<Long, Integer>> weights = new TreeMap<>();
+    private final AI_Heuristic[] players = new AI_Heuristic[3]; // Self-play engines, kept from game to game
+
+    OpeningBookBuilder(int bookPlies) {
+        this.bookPlies = bookPlies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String bookFile = args.length > 2 ? args[2] : Constants.default_OPENING_BOOK_FILE;
+        int difficulty = args.length > 3 ? Integer.parseInt(args[3]) : Constants.difficulty_Intermediate;
+        int depth = args.length > 4 ? Integer.parseInt(args[4]) : 8;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        if (args.length > 5) {
+            builder.importGames(args[5]);
+        }
+        long startTime = System.currentTimeMillis();
+        for (int game = 0; game < games; game++) {
+            builder.selfPlay(difficulty, depth);
+            System.out.println("Game " + (game + 1) + "/" + games + " ("
+                    + (System.currentTimeMillis() - startTime) / 1000 + "s)");
+        }
+        builder.write(bookFile);
+    }
+
+    /**
+     * Plays one game of the AI against itself and adds it to the book
+     *
+     * @param difficulty AI difficulty of both players
+     * @param depth      Search depth of both players
+     */
+    void selfPlay(int difficulty, int depth) {
+        CheckersData board = new CheckersData();
+        ArrayList<Move> moves = new ArrayList<>();
+        int playerID = Constants.RED;
+        for (int id : new int[]{Constants.RED, Constants.BLACK}) {
+            if (players[id] == null || players[id].getDifficulty() != difficulty) {
+                players[id] = new AI_Heuristic(id, difficulty, board.gamePieces, Constants.defaultNumRowsAndColumns);
+                players[id].setOpeningBook(null); // The book must come from searched moves
+                players[id].setPrintSearchInfo(false);
+                players[id].setMaxDepth(depth);
+                players[id].setMoveTimeBudget(0);
+            }
+        }
+        while (moves.size() < MAX_GAME_PLIES && board.getCompleteMoves(playerID) != null) {
+            players[playerID].updateGameBoard(board.gamePieces);
+            Move move = players[playerID].getBestMove();
+            board.makeMove(move);
+            moves.add(move);
+            playerID = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+        }
+        int winner = moves.size() < MAX_GAME_PLIES ? (playerID == Constants.RED ? Constants.BLACK : Constants.RED)
+                : Constants.EMPTY;
+        addGame(moves, winner);
+    }
+
+    /**
+     * @param fileName Imported games (see class comment)
+     */
+    void importGames(String fileName) throws IOException {
+        int imported = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (importGame(line.split("\\s+"))) {
+                    imported++;
+                } else {
+                    System.err.println("Skipped game (illegal move): " + line);
+                }
+            }
+        }
+        System.out.println("Imported " + imported + " games");
+    }
+
+    /**
+     * @param tokens Moves of the game, and optionally its result
+     * @return False if a move is not legal
+     */
+    private boolean importGame(String[] tokens) {
+        CheckersData board = new CheckersData();
+        ArrayList<Move> moves = new ArrayList<>();
+        int playerID = Constants.RED;
+        int winner = Constants.EMPTY;
+        boolean hasResult = false;
+        for (String token : tokens) {
+            if (token.equals("RED") || token.equals("BLACK") || token.equals("DRAW")) {
+                winner = token.equals("RED") ? Constants.RED : token.equals("BLACK") ? Constants.BLACK : Constants.EMPTY;
+                hasResult = true;
+                break;
+            }
+            Move move = findMove(board.getCompleteMoves(playerID), token);
+            if (move == null) {
+                return false;
+            }
+            board.makeMove(move);
+            moves.add(move);
+            playerID = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+        }
+        if (!hasResult && board.getCompleteMoves(playerID) == null) {
+            winner = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+        }
+        addGame(moves, winner);
+        return true;
+    }
+
+    /**
+     * @param legalMoves Legal moves
+     * @param token      Move written as its tiles ("row,col-row,col...")
+     * @return The legal move with those tiles, or null
+     */
+    private static Move findMove(Move[] legalMoves, String token) {
+        if (legalMoves == null) {
+            return null;
+        }
+        for (Move move : legalMoves) {
+            StringBuilder tiles = new StringBuilder(move.fromRow + "," + move.fromCol);
+            for (Move jump : move.getJumps()) {
+                tiles.append("-").append(jump.toRow).append(",").append(jump.toCol);
+            }
+            if (tiles.toString().equals(token)) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the first bookPlies moves of a game to the book
+     *
+     * @param moves  Moves of the game
+     * @param winner Winner's ID, or EMPTY for a draw
+     */
+    private void addGame(ArrayList<Move> moves, int winner) {
+        CheckersData board = new CheckersData();
+        int playerID = Constants.RED;
+        for (int ply = 0; ply < Math.min(bookPlies, moves.size()); ply++) {
+            Move move = moves.get(ply);
+            int points = winner == playerID ? WIN_POINTS : winner == Constants.EMPTY ? DRAW_POINTS : 0;
+            long key = Zobrist.hash(board.gamePieces) ^ Zobrist.sideToMove(playerID);
+            weights.computeIfAbsent(key, k -> new HashMap<>())
+                    .merge(bookMove(move), points, Integer::sum);
+            board.makeMove(move);
+            playerID = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+        }
+    }
+
+    /**
+     * @return The move's tiles (TranspositionTable.packMove) and captured pieces (PackedMove.capturedOf),
+     * as captured << 32 | tiles: jump sequences with the same tiles but other captures are other moves
+     */
+    private static long bookMove(Move move) {
+        return (long) PackedMove.capturedOf(move) << 32 | TranspositionTable.packMove(move);
+    }
+
+    /**
+     * Writes the book, sorted by key (moves that never scored a point are left out)
+     *
+     * @param fileName Book file
+     */
+    void write(String fileName) throws IOException {
+        int records = 0;
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(fileName))) {
+            out.writeInt(OpeningBook.MAGIC);
+            for (Map.Entry<Long, HashMap<Long, Integer>> position : weights.entrySet()) {
+                for (Map.Entry<Long, Integer> move : position.getValue().entrySet()) {
+                    if (move.getValue() > 0) {
+                        out.writeLong(position.getKey());
+                        out.writeInt(move.getKey().intValue()); // Tiles
+                        out.writeInt((int) (move.getKey() >>> 32)); // Captured pieces
+                        out.writeInt(move.getValue());
+                        records++;
+                    }
+                }
+            }
+        }
+        System.out.println("Wrote " + records + " moves of " + weights.size() + " positions to " + fileName);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Packed Move
+ * The search's moves are ints instead of Move objects, so generating them allocates nothing.
+ * BitBoard.generateMoves writes each move into a buffer as SIZE ints:
+ * - Move:      from square (bits 0 - 4), to square (bits 5 - 9), PROMOTION (bit 10)
+ * - Captured:  BitBoard bits of the jumped pieces (0 if the move is not a jump)
+ * <p>
+ * Bits 0 - 9 are the move as packed by TranspositionTable.packMove, so hash moves,
+ * killers and history are compared with squares(move).
+ * Move objects are only made for the game (toMove), once the search has picked its move.
+ */
+final class PackedMove {
+    static final int SIZE = 2;
+    static final int SQUARES = 0x3FF,
+            PROMOTION = 1 << 10;
+
+    private PackedMove() {
+        // restrict instantiation
+    }
+
+    /**
+     * @return Buffer holding the moves of any position
+     */
+    static int[] newBuffer() {
+        return new int[MoveOrdering.MAX_MOVES * SIZE];
+    }
+
+    /**
+     * @param from      Square the piece moves from
+     * @param to        Square the piece ends on
+     * @param promotion True if a man is 'kinged' by the move
+     * @return The packed move
+     */
+    static int pack(int from, int to, boolean promotion) {
+        return from | to << 5 | (promotion ? PROMOTION : 0);
+    }
+
+    static int from(int move) {
+        return move & 31;
+    }
+
+    static int to(int move) {
+        return (move >>> 5) & 31;
+    }
+
+    static boolean isPromotion(int move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    /**
+     * @return The move's squares, as packed by TranspositionTable.packMove
+     */
+    static int squares(int move) {
+        return move & SQUARES;
+    }
+
+    /**
+     * @return The move's tiles, e.g. "(5, 0) -> (4, 1)"
+     */
+    static String toString(int move) {
+        return "(" + BitBoard.rowOf(from(move)) + ", " + BitBoard.colOf(from(move)) + ") -> ("
+                + BitBoard.rowOf(to(move)) + ", " + BitBoard.colOf(to(move)) + ")";
+    }
+
+    /**
+     * @param move       Packed move
+     * @param captured   Its captured pieces
+     * @param legalMoves Legal moves of the position, as Move objects
+     * @return The legal move with the same tiles and captures, or null
+     */
+    static Move toMove(int move, int captured, Move[] legalMoves) {
+        if (move == TranspositionTable.NO_MOVE || legalMoves == null) {
+            return null;
+        }
+        for (Move legalMove : legalMoves) {
+            if (TranspositionTable.packMove(legalMove) == squares(move) && capturedOf(legalMove) == captured) {
+                return legalMove;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return BitBoard bits of the pieces a Move captures
+     */
+    static int capturedOf(Move move) {
+        int captured = 0;
+        for (int jump = 0; jump < move.getNumberOfJumps(); jump++) {
+            captured |= 1 << BitBoard.squareOf(move.getCapturedRow(jump), move.getCapturedCol(jump));
+        }
+        return captured;
+    }
+}
@@ -45,6 +45,10 @@ class Piece {
         this.king = true;
     }
 
+    void setKing(boolean king) {
+        this.king = king;
+    }
+
     boolean isKing() {
         return this.king;
     }
@@ -0,0 +1,19 @@
+/**
+ * Ponder Reply
+ * One opponent reply the AI searches while the opponent thinks (see AI_Heuristic.startPondering),
+ * with the result of the deepest search of the position after it.
+ * Moves are packed (see PackedMove), each with the pieces it captures.
+ */
+class PonderReply {
+    int reply, replyCaptured; // TranspositionTable.NO_MOVE - not chosen yet (the ponder search picks the expected reply)
+    long hashKey; // Zobrist key of the position after the reply
+    int completedDepth;
+    int bestMove = TranspositionTable.NO_MOVE, bestMoveCaptured;
+    int score;
+    long timeSpent; // Milliseconds spent searching this reply
+
+    PonderReply(int reply, int replyCaptured) {
+        this.reply = reply;
+        this.replyCaptured = replyCaptured;
+    }
+}
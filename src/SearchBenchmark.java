@@ -0,0 +1,48 @@
+/**
+ * Thread Scaling Report
+ * Measures time-to-depth of the Hard level search for 1, 2, 4, 8 and 16 threads,
+ * with both parallel search modes, on a fixed set of positions.
+ * <p>
+ * Usage: java SearchBenchmark [depth] [positions]
+ */
+class SearchBenchmark {
+    private static final int[] threadCounts = {1, 2, 4, 8, 16};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int numPositions = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        CheckersData[] positions = new CheckersData[numPositions];
+        int[] playerToMove = new int[numPositions];
+        BenchmarkPositions.create(positions, playerToMove, 6, 15);
+
+        System.out.println("Time-to-depth " + depth + " over " + numPositions + " positions"
+                + " (" + Runtime.getRuntime().availableProcessors() + " cores available)");
+        System.out.printf("%-12s %8s %12s %14s %8s%n", "Mode", "Threads", "Time (ms)", "Nodes", "Speedup");
+        for (int parallelSearch = 0; parallelSearch < Constants.parallelSearchNames.length; parallelSearch++) {
+            long singleThreadTime = 0;
+            for (int threads : threadCounts) {
+                long time = 0, nodes = 0;
+                for (int i = 0; i < numPositions; i++) {
+                    AI_Heuristic computerPlayer = new AI_Heuristic(playerToMove[i], Constants.difficulty_Hard,
+                            positions[i].gamePieces, Constants.defaultNumRowsAndColumns);
+                    computerPlayer.setMaxDepth(depth);
+                    computerPlayer.setMoveTimeBudget(0);
+                    computerPlayer.setSearchThreads(threads);
+                    computerPlayer.setParallelSearch(parallelSearch);
+                    computerPlayer.setPrintSearchInfo(false);
+
+                    long startTime = System.nanoTime();
+                    computerPlayer.getBestMove();
+                    time += System.nanoTime() - startTime;
+                    nodes += computerPlayer.getSearchedNodes();
+                    computerPlayer.setSearchThreads(1); // Shuts the pool down
+                }
+                if (threads == 1) {
+                    singleThreadTime = time;
+                }
+                System.out.printf("%-12s %8d %12d %14d %8.2f%n", Constants.parallelSearchNames[parallelSearch],
+                        threads, time / 1000000, nodes, (double) singleThreadTime / time);
+            }
+        }
+    }
+}
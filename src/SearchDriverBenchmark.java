@@ -0,0 +1,62 @@
+/**
+ * Search Driver Report
+ * Measures nodes and time to depth of the Hard level search with each root driver
+ * (full window alpha-beta and MTD(f), with each MTD(f) step given) on a fixed set of positions,
+ * and how often MTD(f) chooses the alpha-beta move.
+ * The heuristic adds random noise, so MTD(f) is compared with the default step of 100
+ * (noise false - deterministic scores, compared with the textbook step of 1 unless steps are given).
+ * <p>
+ * Usage: java SearchDriverBenchmark [depth] [positions] [noise] [steps, e.g. 1,10,100]
+ */
+class SearchDriverBenchmark {
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int numPositions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        boolean noise = args.length <= 2 || Boolean.parseBoolean(args[2]);
+        String[] steps = (args.length > 3 ? args[3] : noise ? String.valueOf(Constants.default_MTDF_STEP) : "1").split(",");
+        CheckersData[] positions = new CheckersData[numPositions];
+        int[] playerToMove = new int[numPositions];
+        BenchmarkPositions.create(positions, playerToMove, 6, 45);
+
+        System.out.println("Depth " + depth + " over " + numPositions + " positions"
+                + (noise ? "" : " (no evaluation noise)"));
+        System.out.printf("%-12s %12s %14s %8s %14s%n", "Driver", "Time (ms)", "Nodes", "Nodes %", "Same Move %");
+        Move[] alphaBetaMoves = new Move[numPositions];
+        long alphaBetaNodes = 0;
+        // Alpha-beta, then MTD(f) with each step
+        for (int run = 0; run <= steps.length; run++) {
+            int driver = run == 0 ? Constants.searchDriver_AlphaBeta : Constants.searchDriver_MTDf;
+            int step = run == 0 ? Constants.default_MTDF_STEP : Integer.parseInt(steps[run - 1].trim());
+            long time = 0, nodes = 0;
+            int sameMoves = 0;
+            for (int i = 0; i < numPositions; i++) {
+                AI_Heuristic computerPlayer = new AI_Heuristic(playerToMove[i], Constants.difficulty_Hard,
+                        positions[i].gamePieces, Constants.defaultNumRowsAndColumns);
+                computerPlayer.setMaxDepth(depth);
+                computerPlayer.setMoveTimeBudget(0);
+                computerPlayer.setOpeningBook(null);
+                computerPlayer.setPrintSearchInfo(false);
+                computerPlayer.setEvaluationNoise(noise);
+                computerPlayer.setSearchDriver(driver);
+                computerPlayer.setMtdfStep(step);
+
+                long startTime = System.nanoTime();
+                Move move = computerPlayer.getBestMove();
+                time += System.nanoTime() - startTime;
+                nodes += computerPlayer.getSearchedNodes(driver);
+                if (run == 0) {
+                    alphaBetaMoves[i] = move;
+                } else if (BenchmarkPositions.sameMove(move, alphaBetaMoves[i])) {
+                    sameMoves++;
+                }
+            }
+            if (run == 0) {
+                alphaBetaNodes = nodes;
+            }
+            System.out.printf("%-12s %12d %14d %8d %14s%n",
+                    run == 0 ? Constants.searchDriverNames[driver] : Constants.searchDriverNames[driver] + " " + step,
+                    time / 1000000, nodes, 100 * nodes / Math.max(1, alphaBetaNodes),
+                    run == 0 ? "-" : String.valueOf(100 * sameMoves / numPositions));
+        }
+    }
+}
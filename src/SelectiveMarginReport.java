@@ -0,0 +1,68 @@
+/**
+ * Selective Margin Report
+ * Measures how large the futility and ProbCut margins must be (see AI_Heuristic.setSelectiveMargins):
+ * full width Hard searches of a fixed set of positions (no evaluation noise) count, for every quiet move,
+ * the largest margin that would still prune or cut it, and whether the search shows that it must not be
+ * (futility: the move beats alpha, ProbCut: the move fails low at full depth).
+ * For each margin, the report gives the moves it prunes or cuts and how many of them wrongly,
+ * and the smallest margin that gets none wrong.
+ * <p>
+ * Usage: java SelectiveMarginReport [depth] [positions]
+ */
+class SelectiveMarginReport {
+    private static final String[] kindNames = {"Futility 1", "Futility 2", "ProbCut"};
+    private static final int REPORT_STEP = 500; // Margins reported
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int numPositions = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        CheckersData[] positions = new CheckersData[numPositions];
+        int[] playerToMove = new int[numPositions];
+        BenchmarkPositions.create(positions, playerToMove, 6, 45);
+
+        long[][][] counts = new long[AI_Heuristic.MARGIN_PROBCUT + 1][2][AI_Heuristic.MARGIN_BUCKETS];
+        for (int i = 0; i < numPositions; i++) {
+            AI_Heuristic computerPlayer = new AI_Heuristic(playerToMove[i], Constants.difficulty_Hard,
+                    positions[i].gamePieces, Constants.defaultNumRowsAndColumns);
+            computerPlayer.setMaxDepth(depth);
+            computerPlayer.setMoveTimeBudget(0);
+            computerPlayer.setOpeningBook(null);
+            computerPlayer.setPrintSearchInfo(false);
+            computerPlayer.setSearchThreads(1);
+            computerPlayer.setEvaluationNoise(false);
+            computerPlayer.setFutilityPruning(false);
+            computerPlayer.setLateMoveReductions(false);
+            computerPlayer.setProbCut(false);
+            computerPlayer.setMarginMeasurement(counts);
+            computerPlayer.getBestMove();
+        }
+
+        System.out.println("Depth " + depth + " over " + numPositions + " positions (no evaluation noise)");
+        for (int kind = 0; kind < counts.length; kind++) {
+            long[] all = counts[kind][0], wrong = counts[kind][1];
+            long moves = 0;
+            int soundBucket = 1; // Smallest bucket past every wrong one
+            for (int bucket = 0; bucket < all.length; bucket++) {
+                moves += all[bucket];
+                if (wrong[bucket] > 0) {
+                    soundBucket = bucket + 1;
+                }
+            }
+            System.out.println();
+            System.out.println(kindNames[kind] + ": " + moves + " moves, no wrong "
+                    + (kind == AI_Heuristic.MARGIN_PROBCUT ? "cut" : "prune") + " from margin "
+                    + (soundBucket >= all.length ? "> " + (all.length - 2) * AI_Heuristic.MARGIN_BUCKET
+                    : String.valueOf((soundBucket - 1) * AI_Heuristic.MARGIN_BUCKET)));
+            System.out.printf("%8s %14s %8s %14s%n", "Margin", "Moves", "Moves %", "Wrong");
+            for (int margin = 0; margin <= (all.length - 2) * AI_Heuristic.MARGIN_BUCKET; margin += REPORT_STEP) {
+                // A margin prunes or cuts the moves of its bucket and of every larger one
+                long pruned = 0, wronglyPruned = 0;
+                for (int bucket = 1 + margin / AI_Heuristic.MARGIN_BUCKET; bucket < all.length; bucket++) {
+                    pruned += all[bucket];
+                    wronglyPruned += wrong[bucket];
+                }
+                System.out.printf("%8d %14d %8d %14d%n", margin, pruned, 100 * pruned / Math.max(1, moves), wronglyPruned);
+            }
+        }
+    }
+}
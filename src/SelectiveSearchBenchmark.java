@@ -0,0 +1,63 @@
+/**
+ * Selective Search Report
+ * Measures what each selective search technique saves (nodes and time to depth of the Hard level search)
+ * and how often it changes the chosen move, on a fixed set of positions.
+ * Moves are compared with those of the full width search. The heuristic adds random noise,
+ * so a second full width search shows how often the move changes without any pruning
+ * (noise false - deterministic scores, so only the pruning changes moves).
+ * Moves often tie on the heuristic's score, so a changed move is not always a worse one.
+ * <p>
+ * Usage: java SelectiveSearchBenchmark [depth] [positions] [noise]
+ */
+class SelectiveSearchBenchmark {
+    private static final String[] configurationNames = {"Full width", "Full width", "Futility", "LMR", "ProbCut", "All"};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int numPositions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        boolean noise = args.length <= 2 || Boolean.parseBoolean(args[2]);
+        CheckersData[] positions = new CheckersData[numPositions];
+        int[] playerToMove = new int[numPositions];
+        BenchmarkPositions.create(positions, playerToMove, 6, 45);
+
+        System.out.println("Depth " + depth + " over " + numPositions + " positions"
+                + (noise ? "" : " (no evaluation noise)"));
+        System.out.printf("%-12s %12s %14s %8s %14s%n", "Search", "Time (ms)", "Nodes", "Nodes %", "Same Move %");
+        Move[] fullWidthMoves = new Move[numPositions];
+        long fullWidthNodes = 0;
+        for (int configuration = 0; configuration < configurationNames.length; configuration++) {
+            long time = 0, nodes = 0;
+            int sameMoves = 0;
+            for (int i = 0; i < numPositions; i++) {
+                AI_Heuristic computerPlayer = new AI_Heuristic(playerToMove[i], Constants.difficulty_Hard,
+                        positions[i].gamePieces, Constants.defaultNumRowsAndColumns);
+                computerPlayer.setMaxDepth(depth);
+                computerPlayer.setMoveTimeBudget(0);
+                computerPlayer.setOpeningBook(null);
+                computerPlayer.setPrintSearchInfo(false);
+                computerPlayer.setEvaluationNoise(noise);
+                computerPlayer.setFutilityPruning(configuration == 2 || configuration == 5);
+                computerPlayer.setLateMoveReductions(configuration == 3 || configuration == 5);
+                computerPlayer.setProbCut(configuration == 4 || configuration == 5);
+
+                long startTime = System.nanoTime();
+                Move move = computerPlayer.getBestMove();
+                time += System.nanoTime() - startTime;
+                nodes += computerPlayer.getSearchedNodes();
+                if (configuration == 0) {
+                    fullWidthMoves[i] = move;
+                } else if (BenchmarkPositions.sameMove(move, fullWidthMoves[i])) {
+                    sameMoves++;
+                }
+            }
+            if (configuration == 0) {
+                fullWidthNodes = nodes;
+                System.out.printf("%-12s %12d %14d %8d %14s%n", configurationNames[configuration],
+                        time / 1000000, nodes, 100, "-");
+            } else {
+                System.out.printf("%-12s %12d %14d %8d %14d%n", configurationNames[configuration],
+                        time / 1000000, nodes, 100 * nodes / Math.max(1, fullWidthNodes), 100 * sameMoves / numPositions);
+            }
+        }
+    }
+}
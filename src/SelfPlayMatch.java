@@ -0,0 +1,70 @@
+import java.util.Arrays;
+
+/**
+ * Self-Play Match
+ * Plays the Hard level with selective search against the full width Hard level, with the same think time
+ * per move. Games start from the benchmarks' positions (see BenchmarkPositions), each played twice with
+ * the colours swapped, and the evaluation noise on so repeated games differ.
+ * A game ends when the player to move has no legal moves, or is drawn after MAX_GAME_PLIES plies.
+ * <p>
+ * Usage: java SelfPlayMatch [openings] [milliseconds per move] [selective: Futility, LMR, ProbCut or All]
+ */
+class SelfPlayMatch {
+    private static final int MAX_GAME_PLIES = 200;
+    private static final String[] configurationNames = {"Futility", "LMR", "ProbCut", "All"};
+
+    public static void main(String[] args) {
+        int openings = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long moveTime = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        String configuration = args.length > 2 ? args[2] : "All";
+        int selective = Arrays.asList(configurationNames).indexOf(configuration);
+        if (selective < 0) {
+            throw new IllegalArgumentException("Unknown selective search: " + configuration);
+        }
+        // (Two sets of the same positions: each opening is played from both sides)
+        CheckersData[][] positions = new CheckersData[2][openings];
+        int[] playerToMove = new int[openings];
+        BenchmarkPositions.create(positions[0], playerToMove, 6, 20);
+        BenchmarkPositions.create(positions[1], playerToMove, 6, 20);
+
+        int wins = 0, draws = 0, losses = 0;
+        for (int game = 0; game < 2 * openings; game++) {
+            CheckersData board = positions[game % 2][game / 2];
+            int playerID = playerToMove[game / 2];
+            // The selective player moves first in one game of each opening, second in the other
+            int selectiveID = game % 2 == 0 ? playerID : playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+            AI_Heuristic[] players = new AI_Heuristic[3];
+            for (int id : new int[]{Constants.RED, Constants.BLACK}) {
+                players[id] = new AI_Heuristic(id, Constants.difficulty_Hard, board.gamePieces,
+                        Constants.defaultNumRowsAndColumns);
+                players[id].setOpeningBook(null);
+                players[id].setPrintSearchInfo(false);
+                players[id].setMoveTimeBudget(moveTime);
+                players[id].setFutilityPruning(id == selectiveID && (selective == 0 || selective == 3));
+                players[id].setLateMoveReductions(id == selectiveID && (selective == 1 || selective == 3));
+                players[id].setProbCut(id == selectiveID && (selective == 2 || selective == 3));
+            }
+            int plies = 0;
+            while (plies < MAX_GAME_PLIES && board.getCompleteMoves(playerID) != null) {
+                players[playerID].updateGameBoard(board.gamePieces);
+                board.makeMove(players[playerID].getBestMove());
+                plies++;
+                playerID = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+            }
+            String result;
+            if (plies == MAX_GAME_PLIES) {
+                draws++;
+                result = "draw";
+            } else if (playerID == selectiveID) {
+                losses++;
+                result = configuration + " lost";
+            } else {
+                wins++;
+                result = configuration + " won";
+            }
+            System.out.println("Game " + (game + 1) + "/" + 2 * openings + ": " + result + " in " + plies + " plies");
+        }
+        System.out.println(configuration + " against full width, " + moveTime + " ms per move: "
+                + wins + " wins, " + draws + " draws, " + losses + " losses");
+    }
+}
@@ -0,0 +1,397 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Endgame Tablebase Generator
+ * Builds the EndgameTablebase files for every position with up to N pieces by retrograde analysis.
+ * <p>
+ * Slices are solved from the fewest pieces up. A capture leads to a slice with fewer pieces and
+ * a promotion to a slice with fewer men, so slices are solved by pieces, then by men,
+ * and every move leaving a slice lands in a slice that is already solved.
+ * <p>
+ * Within a slice, pass n finds the positions won or lost in exactly n plies:
+ * - Pass 0: the player to move has no legal moves (lost)
+ * - Pass n: a move reaches a position lost in n - 1 plies (won in n),
+ * or every move reaches a position won in at most n - 1 plies (lost in n).
+ * Only pass 0 generates every position's moves (and looks up the moves leaving the slice once).
+ * Later passes work backwards from the positions the last pass solved: the moves staying in a slice are steps
+ * (no jump, no promotion), so the positions they came from are found by stepping each piece back.
+ * Each half pass only reads values of earlier ones, so it runs in parallel over index ranges.
+ * Positions still unknown when the passes stop changing anything are draws.
+ * <p>
+ * Solved slices are not kept in memory: moves leaving a slice are looked up in the files already written.
+ * <p>
+ * Usage: java TablebaseGenerator [pieces] [directory] [threads] [compressed (true/false)]
+ */
+class TablebaseGenerator {
+    private static final byte UNKNOWN = Byte.MIN_VALUE;
+    private static final int RANGES_PER_THREAD = 16;
+
+    private final int maxPieces;
+    private final File directory;
+    private final ForkJoinPool pool;
+    private final boolean compressed;
+    private EndgameTablebase solvedSlices; // Read back through the files written so far
+
+    TablebaseGenerator(int maxPieces, File directory, int threads, boolean compressed) {
+        this.maxPieces = maxPieces;
+        this.directory = directory;
+        this.pool = new ForkJoinPool(threads);
+        this.compressed = compressed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int pieces = args.length > 0 ? Integer.parseInt(args[0]) : Constants.default_TABLEBASE_PIECES;
+        String directory = args.length > 1 ? args[1] : Constants.default_TABLEBASE_DIRECTORY;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        boolean compressed = args.length > 3 ? Boolean.parseBoolean(args[3]) : Constants.default_TABLEBASE_COMPRESSED;
+        new TablebaseGenerator(pieces, new File(directory), threads, compressed).generate();
+    }
+
+    void generate() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        solvedSlices = EndgameTablebase.open(directory.getPath(), maxPieces);
+        long startTime = System.currentTimeMillis();
+        for (int key : sliceOrder()) {
+            long sliceStartTime = System.currentTimeMillis();
+            byte[] values = solve(key);
+            write(key, values);
+            System.out.println(EndgameTablebase.fileName(key) + ": " + values.length + " positions "
+                    + summary(values) + " " + (System.currentTimeMillis() - sliceStartTime) + "ms");
+        }
+        pool.shutdown();
+        System.out.println("Done in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * @return Every slice with 2 to maxPieces pieces (at least one per player), in solving order
+     */
+    private ArrayList<Integer> sliceOrder() {
+        ArrayList<Integer> order = new ArrayList<>();
+        for (int pieces = 2; pieces <= maxPieces; pieces++) {
+            for (int men = 0; men <= pieces; men++) {
+                for (int redMen = 0; redMen <= men; redMen++) {
+                    for (int redKings = 0; redKings <= pieces - men; redKings++) {
+                        int blackMen = men - redMen,
+                                blackKings = pieces - men - redKings;
+                        if (redMen + redKings > 0 && blackMen + blackKings > 0) {
+                            order.add(EndgameTablebase.sliceKey(redMen, redKings, blackMen, blackKings));
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @param key Slice to solve
+     * @return Values of the slice: [0, size) RED to move, [size, 2 * size) BLACK to move
+     */
+    private byte[] solve(int key) {
+        int size = (int) EndgameTablebase.sliceSize(key);
+        byte[] values = new byte[2 * size];
+        Arrays.fill(values, UNKNOWN);
+        byte[] exitWins = new byte[values.length], exitLosses = new byte[values.length];
+
+        int longestExit = forEachRange(values.length,
+                (from, to) -> initialize(key, values, exitWins, exitLosses, from, to));
+        boolean changed = true;
+        for (int pass = 1; pass <= EndgameTablebase.MAX_DISTANCE && (changed || pass <= longestExit); pass++) {
+            int currentPass = pass;
+            changed = forEachRange(values.length,
+                    (from, to) -> propagateWins(key, values, exitWins, from, to, currentPass)) > 0;
+            changed |= forEachRange(values.length,
+                    (from, to) -> propagateLosses(key, values, exitLosses, from, to, currentPass)) > 0;
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == UNKNOWN) {
+                values[i] = EndgameTablebase.DRAW;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * A task over a range of a slice's indexes
+     */
+    private interface RangeTask {
+        /**
+         * @return A result, combined over the ranges by taking the largest
+         */
+        int run(int from, int to);
+    }
+
+    /**
+     * Runs the task over [0, length), split into ranges run in parallel
+     *
+     * @return Largest result of the ranges
+     */
+    private int forEachRange(int length, RangeTask task) {
+        int ranges = pool.getParallelism() * RANGES_PER_THREAD;
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[ranges];
+        int[] results = new int[ranges];
+        for (int range = 0; range < ranges; range++) {
+            int currentRange = range;
+            int from = (int) ((long) length * range / ranges),
+                    to = (int) ((long) length * (range + 1) / ranges);
+            tasks[range] = pool.submit(() -> results[currentRange] = task.run(from, to));
+        }
+        int result = 0;
+        for (int range = 0; range < ranges; range++) {
+            tasks[range].join();
+            result = Math.max(result, results[range]);
+        }
+        return result;
+    }
+
+    /**
+     * The only pass that generates every position's moves. Positions without moves are lost (in 0 plies),
+     * and the moves leaving the slice (captures and promotions, into solved slices) are looked up once:
+     * exitWins holds the shortest win they give, exitLosses the longest loss if the opponent wins after every one
+     * of them (0 - none).
+     *
+     * @return Longest distance in exitWins and exitLosses
+     */
+    private int initialize(int key, byte[] values, byte[] exitWins, byte[] exitLosses, int from, int to) {
+        int size = values.length / 2;
+        UndoRecord undo = new UndoRecord();
+        int[] moves = PackedMove.newBuffer();
+        int longestExit = 0;
+        for (int i = from; i < to; i++) {
+            int playerID = i < size ? Constants.RED : Constants.BLACK;
+            int opponentID = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+            BitBoard position = EndgameTablebase.position(key, i < size ? i : i - size);
+            int moveCount = position.generateMoves(playerID, moves);
+            if (moveCount == 0) {
+                // No legal moves: the player to move has lost
+                values[i] = EndgameTablebase.loss(0);
+                continue;
+            }
+
+            int shortestWin = Integer.MAX_VALUE, longestLoss = 0;
+            boolean allExitsWon = true;
+            for (int m = 0; m < moveCount; m++) {
+                int move = moves[m * PackedMove.SIZE], captured = moves[m * PackedMove.SIZE + 1];
+                if (captured == 0 && !PackedMove.isPromotion(move)) {
+                    continue; // Stays in the slice
+                }
+                position.makeMove(move, captured, undo);
+                int child = exitValue(position, opponentID);
+                position.unmakeMove(move, undo);
+                if (EndgameTablebase.isLoss(child)) {
+                    shortestWin = Math.min(shortestWin, EndgameTablebase.distance(child) + 1);
+                    allExitsWon = false;
+                } else if (EndgameTablebase.isWin(child)) {
+                    longestLoss = Math.max(longestLoss, EndgameTablebase.distance(child) + 1);
+                } else {
+                    allExitsWon = false;
+                }
+            }
+            if (shortestWin <= EndgameTablebase.MAX_DISTANCE) {
+                exitWins[i] = (byte) shortestWin;
+                longestExit = Math.max(longestExit, shortestWin);
+            }
+            if (allExitsWon && longestLoss > 0 && longestLoss <= EndgameTablebase.MAX_DISTANCE) {
+                exitLosses[i] = (byte) longestLoss;
+                longestExit = Math.max(longestExit, longestLoss);
+            }
+        }
+        return longestExit;
+    }
+
+    /**
+     * Pass n, first half: the positions won in n plies. They have a move to a position lost in n - 1 plies,
+     * which is either a move leaving the slice (exitWins) or a step back from a position of the slice
+     * found lost by the last pass.
+     *
+     * @return 1 if any position was solved, 0 otherwise
+     */
+    private int propagateWins(int key, byte[] values, byte[] exitWins, int from, int to, int pass) {
+        int size = values.length / 2;
+        byte lostBefore = EndgameTablebase.loss(pass - 1), won = EndgameTablebase.win(pass);
+        int[] predecessors = new int[BoardGeometry.DIRECTIONS * maxPieces];
+        BitBoard previous = new BitBoard();
+        int changed = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] == UNKNOWN && exitWins[i] == pass) {
+                values[i] = won;
+                changed = 1;
+            } else if (values[i] == lostBefore) {
+                int count = predecessors(EndgameTablebase.position(key, i < size ? i : i - size),
+                        i < size ? Constants.BLACK : Constants.RED, size, previous, predecessors);
+                for (int p = 0; p < count; p++) {
+                    if (values[predecessors[p]] == UNKNOWN) {
+                        values[predecessors[p]] = won;
+                        changed = 1;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Pass n, second half: the positions lost in n plies. Every move reaches a position won by the opponent,
+     * the longest in n - 1 plies. That move either leaves the slice (exitLosses) or reaches a position of the slice
+     * found won by this pass's first half, so only those positions' predecessors are checked.
+     *
+     * @return 1 if any position was solved, 0 otherwise
+     */
+    private int propagateLosses(int key, byte[] values, byte[] exitLosses, int from, int to, int pass) {
+        int size = values.length / 2;
+        byte wonBefore = EndgameTablebase.win(pass - 1), lost = EndgameTablebase.loss(pass);
+        int[] predecessors = new int[BoardGeometry.DIRECTIONS * maxPieces];
+        int[] moves = PackedMove.newBuffer();
+        BitBoard previous = new BitBoard();
+        UndoRecord undo = new UndoRecord();
+        int changed = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] == UNKNOWN && exitLosses[i] == pass) {
+                if (isLost(key, values, i, pass, moves, undo)) {
+                    values[i] = lost;
+                    changed = 1;
+                }
+            } else if (values[i] == wonBefore) {
+                int count = predecessors(EndgameTablebase.position(key, i < size ? i : i - size),
+                        i < size ? Constants.BLACK : Constants.RED, size, previous, predecessors);
+                for (int p = 0; p < count; p++) {
+                    int predecessor = predecessors[p];
+                    if (values[predecessor] == UNKNOWN && isLost(key, values, predecessor, pass, moves, undo)) {
+                        values[predecessor] = lost;
+                        changed = 1;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param i    Index (in values) of an unsolved position
+     * @param pass Pass being run
+     * @return True if every move of the position reaches a position won by the opponent in at most pass - 1 plies,
+     * and one of them in exactly pass - 1
+     */
+    private boolean isLost(int key, byte[] values, int i, int pass, int[] moves, UndoRecord undo) {
+        int size = values.length / 2;
+        int playerID = i < size ? Constants.RED : Constants.BLACK;
+        int opponentID = playerID == Constants.RED ? Constants.BLACK : Constants.RED;
+        BitBoard position = EndgameTablebase.position(key, i < size ? i : i - size);
+        int moveCount = position.generateMoves(playerID, moves);
+        int longestLoss = 0;
+        for (int m = 0; m < moveCount; m++) {
+            int move = moves[m * PackedMove.SIZE], captured = moves[m * PackedMove.SIZE + 1];
+            position.makeMove(move, captured, undo);
+            int child;
+            if (captured == 0 && !PackedMove.isPromotion(move)) {
+                int index = (int) EndgameTablebase.index(position);
+                child = values[opponentID == Constants.RED ? index : index + size];
+            } else {
+                child = exitValue(position, opponentID);
+            }
+            position.unmakeMove(move, undo);
+            if (child == UNKNOWN || !EndgameTablebase.isWin(child) || EndgameTablebase.distance(child) >= pass) {
+                return false;
+            }
+            longestLoss = Math.max(longestLoss, EndgameTablebase.distance(child) + 1);
+        }
+        return longestLoss == pass;
+    }
+
+    /**
+     * Steps back: the positions of the slice from which the player reached this one by a step
+     * (a move that neither jumps nor crowns, the only moves staying in a slice).
+     * A man stepped forward, so it came from behind; a king from any side.
+     * The step was only legal if the player had no jump.
+     *
+     * @param position     Position after the step
+     * @param playerID     Player who made the step (to move in the predecessors)
+     * @param size         Slice size
+     * @param previous     Work board
+     * @param predecessors Filled with the predecessors' indexes in values
+     * @return Number of predecessors
+     */
+    private static int predecessors(BitBoard position, int playerID, int size, BitBoard previous, int[] predecessors) {
+        int empty = position.getEmpty();
+        int count = 0;
+        for (int pieces = position.getPieces(playerID); pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces), piece = 1 << square;
+            boolean king = (position.kings & piece) != 0;
+            for (int direction = 0; direction < BoardGeometry.DIRECTIONS; direction++) {
+                // RED men step North, so they came from the South (directions 0 and 1), BLACK men the other way
+                if (!king && (direction < 2) != (playerID == Constants.RED)) {
+                    continue;
+                }
+                int origin = BoardGeometry.NEIGHBOUR[direction][square] & empty;
+                if (origin == 0) {
+                    continue;
+                }
+                int moved = piece | origin;
+                previous.red = playerID == Constants.RED ? position.red ^ moved : position.red;
+                previous.black = playerID == Constants.BLACK ? position.black ^ moved : position.black;
+                previous.kings = king ? position.kings ^ moved : position.kings;
+                if (previous.jumpers(playerID) != 0) {
+                    continue;
+                }
+                int index = (int) EndgameTablebase.index(previous);
+                predecessors[count++] = playerID == Constants.RED ? index : index + size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param position Position after a move leaving the slice
+     * @param playerID Player to move in position
+     * @return Value of the position (from a solved slice, read back through its file)
+     */
+    private int exitValue(BitBoard position, int playerID) {
+        if (position.getPieces(playerID) == 0) {
+            // Every piece was captured
+            return EndgameTablebase.loss(0);
+        }
+        return solvedSlices.probe(position, playerID);
+    }
+
+    private void write(int key, byte[] values) throws IOException {
+        // A file of the other format, left by an earlier run, would be read instead of this one
+        File other = new File(directory,
+                compressed ? EndgameTablebase.fileName(key) : EndgameTablebase.compressedFileName(key));
+        if (other.isFile() && !other.delete()) {
+            throw new IOException("Could not delete " + other);
+        }
+        if (compressed) {
+            CompressedTablebase.write(new File(directory, EndgameTablebase.compressedFileName(key)), values);
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(new File(directory, EndgameTablebase.fileName(key)))) {
+            out.write(values);
+        }
+    }
+
+    /**
+     * @return Number of wins, losses and draws (for the player to move)
+     */
+    private static String summary(byte[] values) {
+        int wins = 0, losses = 0, draws = 0;
+        for (byte value : values) {
+            if (EndgameTablebase.isWin(value)) {
+                wins++;
+            } else if (EndgameTablebase.isLoss(value)) {
+                losses++;
+            } else {
+                draws++;
+            }
+        }
+        return "(Wins: " + wins + " Losses: " + losses + " Draws: " + draws + ")";
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Transposition Table
+ * Fixed size hash table of previously searched positions, indexed by Zobrist key.
+ * Each entry is two longs (key ^ data, data), where data packs:
+ * - bits  0-31:  score
+ * - bits 32-39:  remaining depth the score was searched to
+ * - bits 40-41:  bound type (EXACT, LOWER_BOUND or UPPER_BOUND)
+ * - bits 42-46:  best move 'from' tile (BitBoard index)
+ * - bits 47-51:  best move 'to' tile (BitBoard index)
+ * - bit  52:     best move is set
+ * - bit  53:     entry is used (so data is never 0)
+ * - bits 54-61:  generation (age) of the search that stored the entry
+ * <p>
+ * Replacement: a slot is overwritten by the same position, by a search that is at least as deep
+ * as the stored one, or by any search once the stored entry is from an older generation.
+ * The table is kept from one move (and game) to the next: age() starts a new generation,
+ * so old entries still give cutoffs and hash moves, but no longer hold on to their slots.
+ * <p>
+ * The table can be shared by search threads without locks.
+ * Each long is read/written atomically, and the slot's first long holds key ^ data,
+ * so an entry torn by two threads writing the same slot no longer matches its key
+ * and is simply treated as a miss.
+ */
+class TranspositionTable {
+    static final int EXACT = 0,
+            LOWER_BOUND = 1, // Score failed high (score >= beta)
+            UPPER_BOUND = 2; // Score failed low (score <= alpha)
+    static final int NO_MOVE = -1;
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final long HAS_MOVE = 1L << 52,
+            USED = 1L << 53;
+
+    private final AtomicLongArray entries; // [2 * slot] = key ^ data, [2 * slot + 1] = data
+    private final int mask;
+    private int generation; // Set between searches, search threads only read it
+
+    /**
+     * @param sizeInMegabytes Table size (rounded down to a power of 2 number of entries)
+     */
+    TranspositionTable(int sizeInMegabytes) {
+        long slots = Math.max(1, (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        int size = Integer.highestOneBit((int) Math.min(slots, 1 << 29));
+        entries = new AtomicLongArray(2 * size);
+        mask = size - 1;
+    }
+
+    /**
+     * @param key Position key
+     * @return Packed entry data, or 0 if the position is not stored
+     */
+    long probe(long key) {
+        int index = 2 * ((int) key & mask);
+        long data = entries.getOpaque(index + 1);
+        return (entries.getOpaque(index) ^ data) == key ? data : 0;
+    }
+
+    /**
+     * @param key   Position key
+     * @param depth Remaining depth the position was searched to
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param score Search score
+     * @param move  Packed best move (see packMove), or NO_MOVE
+     */
+    void store(long key, int depth, int bound, int score, int move) {
+        int index = 2 * ((int) key & mask);
+        long stored = entries.getOpaque(index + 1);
+        if ((entries.getOpaque(index) ^ stored) != key && stored != 0 && depth(stored) > depth
+                && generation(stored) == generation) {
+            return;
+        }
+        long entry = (score & 0xFFFFFFFFL)
+                | ((long) Math.min(depth, 255) << 32)
+                | ((long) bound << 40)
+                | USED
+                | ((long) generation << 54);
+        if (move != NO_MOVE) {
+            entry |= ((long) move << 42) | HAS_MOVE;
+        }
+        entries.setOpaque(index, key ^ entry);
+        entries.setOpaque(index + 1, entry);
+    }
+
+    void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setOpaque(i, 0);
+        }
+        generation = 0;
+    }
+
+    /**
+     * Starts a new generation: entries stored so far can be replaced by shallower searches.
+     * Called before each search (no search thread may be running).
+     */
+    void age() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    static int score(long entry) {
+        return (int) entry;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> 40) & 3;
+    }
+
+    static int generation(long entry) {
+        return (int) (entry >>> 54) & 0xFF;
+    }
+
+    /**
+     * @param entry Packed entry data
+     * @return Packed best move, or NO_MOVE
+     */
+    static int move(long entry) {
+        return (entry & HAS_MOVE) != 0 ? (int) (entry >>> 42) & 0x3FF : NO_MOVE;
+    }
+
+    /**
+     * @param move Move to pack
+     * @return from | to << 5 (BitBoard indices)
+     */
+    static int packMove(Move move) {
+        return BitBoard.squareOf(move.fromRow, move.fromCol)
+                | BitBoard.squareOf(move.toRow, move.toCol) << 5;
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Undo Record
+ * Everything a move destroys, so the move can be taken back:
+ * - The jumped pieces (if any)
+ * - Whether the moving piece was 'kinged' by the move
+ * - The position's Zobrist key
+ * <p>
+ * The search keeps one record per ply and reuses them,
+ * so making/unmaking moves does not allocate.
+ */
+class UndoRecord {
+    int captured; // Jumped tiles as BitBoard bits (0 if the move is not a jump)
+    int capturedKings; // Jumped tiles that held kings
+    int capturedPieceType; // A move only ever captures the opponent's pieces
+    boolean promoted;
+    long hashKey; // Zobrist key before the move
+
+    void reset() {
+        captured = 0;
+        capturedKings = 0;
+        capturedPieceType = Constants.EMPTY;
+        promoted = false;
+    }
+}
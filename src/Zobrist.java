@@ -0,0 +1,78 @@
+import java.util.Random;
+
+/**
+ * Zobrist Hashing
+ * Every (piece kind, tile) pair gets a random 64-bit number.
+ * A position's key is the XOR of the numbers of all its pieces,
+ * so a move only needs to XOR out/in the few pieces it changes.
+ * <p>
+ * Piece kinds:
+ * 0   -   Red Pawn
+ * 1   -   Red King
+ * 2   -   Black Pawn
+ * 3   -   Black King
+ */
+final class Zobrist {
+
+    private Zobrist() {
+        // restrict instantiation
+    }
+
+    private static final long SEED = 0x5EEDC4EC4E25L; // Fixed seed so keys are the same on every run
+    private static final long[][] PIECE_KEYS = new long[4][BitBoard.NUM_SQUARES];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        Random random = new Random(SEED);
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < keys.length; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    /**
+     * @param pieceType RED or BLACK
+     * @param king      Is the piece a king
+     * @param square    BitBoard index of the piece's tile
+     * @return Key of that piece on that tile
+     */
+    static long pieceKey(int pieceType, boolean king, int square) {
+        return PIECE_KEYS[(pieceType == Constants.RED ? 0 : 2) + (king ? 1 : 0)][square];
+    }
+
+    /**
+     * @param playerID Player to move
+     * @return Key XOR'ed into the position key for the player to move
+     */
+    static long sideToMove(int playerID) {
+        return playerID == Constants.BLACK ? BLACK_TO_MOVE : 0;
+    }
+
+    /**
+     * @param position Position to hash
+     * @return Key of every piece in the position (side to move excluded)
+     */
+    static long hash(BitBoard position) {
+        long key = 0;
+        for (int square = 0; square < BitBoard.NUM_SQUARES; square++) {
+            int bit = 1 << square;
+            boolean king = (position.kings & bit) != 0;
+            if ((position.red & bit) != 0) {
+                key ^= pieceKey(Constants.RED, king, square);
+            } else if ((position.black & bit) != 0) {
+                key ^= pieceKey(Constants.BLACK, king, square);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * @param board Board to hash
+     * @return Key of every piece on the board (side to move excluded)
+     */
+    static long hash(Piece[][] board) {
+        return hash(new BitBoard(board));
+    }
+}